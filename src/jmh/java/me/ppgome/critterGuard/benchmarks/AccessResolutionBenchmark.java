@@ -0,0 +1,95 @@
+package me.ppgome.critterGuard.benchmarks;
+
+import me.ppgome.critterGuard.database.AccessLevel;
+import me.ppgome.critterGuard.database.SavedMount;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the access checks run when a player mounts or interacts with a saved mount.
+ * Each lookup pairs a mount with its owner, a full access player, a passenger or a stranger in equal parts.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "--enable-preview")
+public class AccessResolutionBenchmark {
+
+    /**
+     * The number of saved mounts the lookups are spread over.
+     */
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int critters;
+
+    private SavedMount[] mounts;
+    private UUID[] players;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        Random random = new Random(BenchmarkData.SEED);
+        SavedMount[] savedMounts = new SavedMount[critters];
+        UUID[][] accessPlayers = new UUID[critters][];
+        for(int i = 0; i < critters; i++) {
+            UUID ownerUuid = BenchmarkData.randomUuid(random);
+            UUID fullUuid = BenchmarkData.randomUuid(random);
+            UUID passengerUuid = BenchmarkData.randomUuid(random);
+            savedMounts[i] = BenchmarkData.mount(random, ownerUuid, i);
+            BenchmarkData.grant(savedMounts[i], fullUuid, true);
+            BenchmarkData.grant(savedMounts[i], passengerUuid, false);
+            accessPlayers[i] = new UUID[] {ownerUuid, fullUuid, passengerUuid};
+        }
+
+        mounts = new SavedMount[BenchmarkData.LOOKUP_KEYS];
+        players = new UUID[BenchmarkData.LOOKUP_KEYS];
+        for(int i = 0; i < BenchmarkData.LOOKUP_KEYS; i++) {
+            int mount = random.nextInt(critters);
+            mounts[i] = savedMounts[mount];
+            players[i] = i % 4 == 3 ? BenchmarkData.randomUuid(random) : accessPlayers[mount][i % 4];
+        }
+    }
+
+    @Benchmark
+    public boolean hasAccess() {
+        int i = cursor++ & (BenchmarkData.LOOKUP_KEYS - 1);
+        return mounts[i].hasAccess(players[i]);
+    }
+
+    @Benchmark
+    public boolean hasFullAccess() {
+        int i = cursor++ & (BenchmarkData.LOOKUP_KEYS - 1);
+        return mounts[i].hasFullAccess(players[i]);
+    }
+
+    @Benchmark
+    public boolean isOwner() {
+        int i = cursor++ & (BenchmarkData.LOOKUP_KEYS - 1);
+        return mounts[i].isOwner(players[i]);
+    }
+
+    /**
+     * The checks the mount handler used to make for every passenger before access levels were resolved at once.
+     */
+    @Benchmark
+    public void chainedChecks(Blackhole blackhole) {
+        int i = cursor++ & (BenchmarkData.LOOKUP_KEYS - 1);
+        SavedMount savedMount = mounts[i];
+        UUID player = players[i];
+        blackhole.consume(savedMount.hasAccess(player));
+        blackhole.consume(savedMount.hasFullAccess(player));
+        blackhole.consume(savedMount.isOwner(player));
+    }
+
+    @Benchmark
+    public AccessLevel resolveAccess() {
+        int i = cursor++ & (BenchmarkData.LOOKUP_KEYS - 1);
+        return mounts[i].resolveAccess(players[i]);
+    }
+
+}
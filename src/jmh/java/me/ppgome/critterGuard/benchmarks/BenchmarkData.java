@@ -0,0 +1,94 @@
+package me.ppgome.critterGuard.benchmarks;
+
+import me.ppgome.critterGuard.PlayerMeta;
+import me.ppgome.critterGuard.database.MountAccess;
+import me.ppgome.critterGuard.database.SavedMount;
+import me.ppgome.critterGuard.database.SavedPet;
+import org.bukkit.NamespacedKey;
+
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * Builds the synthetic critters used by the benchmarks.
+ * Everything is generated from a fixed seed so runs with the same size are comparable.
+ */
+final class BenchmarkData {
+
+    /**
+     * The seed every dataset is generated from.
+     */
+    static final long SEED = 0xC0FFEEL;
+    /**
+     * The number of lookup keys each benchmark cycles through. Must be a power of two.
+     */
+    static final int LOOKUP_KEYS = 1024;
+    /**
+     * The key PlayerMetas store their notification toggle under.
+     */
+    static final NamespacedKey NOTIFICATION_KEY = new NamespacedKey("critterguard", "cg_notif_toggle");
+
+    private BenchmarkData() {}
+
+    //------------------------------------------------------------------------------------------------------------------
+
+    /**
+     * Generates a random UUID from the given source.
+     *
+     * @param random The source of randomness
+     * @return The UUID
+     */
+    static UUID randomUuid(Random random) {
+        return new UUID(random.nextLong(), random.nextLong());
+    }
+
+    /**
+     * Creates a saved horse with a generated name.
+     *
+     * @param random The source of randomness
+     * @param ownerUuid The UUID of the owner
+     * @param number The number used in the mount's name
+     * @return The mount
+     */
+    static SavedMount mount(Random random, UUID ownerUuid, int number) {
+        return new SavedMount(randomUuid(random), "Mount " + number, ownerUuid, null,
+                "HORSE", "CHESTNUT", "WHITE");
+    }
+
+    /**
+     * Creates a saved wolf with a generated name.
+     *
+     * @param random The source of randomness
+     * @param ownerUuid The UUID of the owner
+     * @param number The number used in the pet's name
+     * @return The pet
+     */
+    static SavedPet pet(Random random, UUID ownerUuid, int number) {
+        return new SavedPet(randomUuid(random), "Pet " + number, ownerUuid, null,
+                "WOLF", "PALE", "CLASSIC");
+    }
+
+    /**
+     * Grants a player access to a mount.
+     *
+     * @param savedMount The mount
+     * @param playerUuid The UUID of the player
+     * @param fullAccess True for full access, false for passenger access
+     */
+    static void grant(SavedMount savedMount, UUID playerUuid, boolean fullAccess) {
+        MountAccess mountAccess = new MountAccess(savedMount.getEntityUuid(), playerUuid);
+        mountAccess.setFullAccess(fullAccess);
+        savedMount.addAccess(playerUuid, mountAccess);
+    }
+
+    /**
+     * Creates an empty PlayerMeta without a plugin instance.
+     *
+     * @param playerUuid The UUID of the player
+     * @return The PlayerMeta
+     */
+    static PlayerMeta playerMeta(UUID playerUuid) {
+        return new PlayerMeta(playerUuid, null, NOTIFICATION_KEY);
+    }
+
+}
@@ -0,0 +1,136 @@
+package me.ppgome.critterGuard.benchmarks;
+
+import com.j256.ormlite.dao.CloseableIterator;
+import com.j256.ormlite.dao.Dao;
+import com.j256.ormlite.dao.DaoManager;
+import com.j256.ormlite.jdbc.DataSourceConnectionSource;
+import com.j256.ormlite.support.ConnectionSource;
+import com.j256.ormlite.table.TableUtils;
+import me.ppgome.critterGuard.database.MountAccess;
+import me.ppgome.critterGuard.database.RowMapper;
+import me.ppgome.critterGuard.database.SavedMount;
+import me.ppgome.critterGuard.database.SavedPet;
+import me.ppgome.critterGuard.database.ValueDictionary;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.sqlite.SQLiteDataSource;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Date;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures rows loaded per second from a SQLite file of ROWS mounts, pets and access records, through ORMLite's
+ * iterator and through the hand-written row mappers used at startup.
+ * Run with -prof gc to see the bytes allocated per row, reported as gc.alloc.rate.norm.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "--enable-preview")
+public class BulkLoadBenchmark {
+
+    private static final int ROWS = 100_000;
+
+    /**
+     * ORMLITE reads through the DAO's iterator, MAPPER through the row mappers.
+     */
+    @Param({"ORMLITE", "MAPPER"})
+    public String loader;
+
+    private Path directory;
+    private ConnectionSource connectionSource;
+    private Dao<SavedMount, UUID> savedMountDao;
+    private Dao<SavedPet, UUID> savedPetDao;
+    private Dao<MountAccess, Integer> mountAccessDao;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        directory = Files.createTempDirectory("critterguard-bench");
+        String url = "jdbc:sqlite:" + directory.resolve("CritterGuard.db").toAbsolutePath();
+        SQLiteDataSource dataSource = new SQLiteDataSource();
+        dataSource.setUrl(url);
+        connectionSource = new DataSourceConnectionSource(dataSource, url);
+        ValueDictionary.install(connectionSource);
+        TableUtils.createTableIfNotExists(connectionSource, SavedMount.class);
+        TableUtils.createTableIfNotExists(connectionSource, SavedPet.class);
+        TableUtils.createTableIfNotExists(connectionSource, MountAccess.class);
+        savedMountDao = DaoManager.createDao(connectionSource, SavedMount.class);
+        savedPetDao = DaoManager.createDao(connectionSource, SavedPet.class);
+        mountAccessDao = DaoManager.createDao(connectionSource, MountAccess.class);
+
+        Random random = new Random(BenchmarkData.SEED);
+        savedMountDao.callBatchTasks(() -> {
+            for(int i = 0; i < ROWS; i++) {
+                UUID ownerUuid = BenchmarkData.randomUuid(random);
+                SavedMount savedMount = BenchmarkData.mount(random, ownerUuid, i);
+                savedMount.setLockDate(new Date());
+                savedMountDao.create(savedMount);
+                savedPetDao.create(BenchmarkData.pet(random, ownerUuid, i));
+                MountAccess mountAccess = new MountAccess(savedMount.getEntityUuid(),
+                        BenchmarkData.randomUuid(random));
+                mountAccess.setFullAccess(random.nextBoolean());
+                mountAccessDao.create(mountAccess);
+            }
+            return null;
+        });
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        DaoManager.clearCache();
+        connectionSource.close();
+        File[] files = directory.toFile().listFiles();
+        if(files != null) {
+            for(File file : files) {
+                Files.deleteIfExists(file.toPath());
+            }
+        }
+        Files.deleteIfExists(directory);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void loadMounts(Blackhole blackhole) throws Exception {
+        if(loader.equals("MAPPER")) RowMapper.SAVED_MOUNT.forEach(savedMountDao, blackhole::consume);
+        else iterate(savedMountDao, blackhole);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void loadPets(Blackhole blackhole) throws Exception {
+        if(loader.equals("MAPPER")) RowMapper.SAVED_PET.forEach(savedPetDao, blackhole::consume);
+        else iterate(savedPetDao, blackhole);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void loadMountAccess(Blackhole blackhole) throws Exception {
+        if(loader.equals("MAPPER")) RowMapper.MOUNT_ACCESS.forEach(mountAccessDao, blackhole::consume);
+        else iterate(mountAccessDao, blackhole);
+    }
+
+    /**
+     * Reads every row of a table through ORMLite, the way the tables were loaded before the row mappers.
+     *
+     * @param dao The DAO of the table
+     * @param blackhole The blackhole each entity is passed to
+     */
+    private static <T> void iterate(Dao<T, ?> dao, Blackhole blackhole) throws Exception {
+        CloseableIterator<T> iterator = dao.iterator();
+        try {
+            while(iterator.hasNext()) {
+                blackhole.consume(iterator.next());
+            }
+        } finally {
+            iterator.closeQuietly();
+        }
+    }
+
+}
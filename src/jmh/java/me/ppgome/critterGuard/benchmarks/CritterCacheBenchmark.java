@@ -0,0 +1,78 @@
+package me.ppgome.critterGuard.benchmarks;
+
+import me.ppgome.critterGuard.CritterCache;
+import me.ppgome.critterGuard.database.SavedMount;
+import me.ppgome.critterGuard.database.SavedPet;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cache lookups every entity event starts with.
+ * Half of the lookup keys hit a saved critter and half miss, like events on a server with wild animals around.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "--enable-preview")
+public class CritterCacheBenchmark {
+
+    /**
+     * The number of saved critters in the cache, split evenly between mounts and pets.
+     */
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int critters;
+
+    private CritterCache critterCache;
+    private UUID[] mountKeys;
+    private UUID[] petKeys;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        Random random = new Random(BenchmarkData.SEED);
+        critterCache = new CritterCache(null);
+        List<UUID> mountUuids = new ArrayList<>();
+        List<UUID> petUuids = new ArrayList<>();
+
+        UUID ownerUuid = BenchmarkData.randomUuid(random);
+        for(int i = 0; i < critters; i++) {
+            // Breeders own a few hundred critters each
+            if(i % 300 == 0) ownerUuid = BenchmarkData.randomUuid(random);
+            if(i % 2 == 0) {
+                SavedMount savedMount = BenchmarkData.mount(random, ownerUuid, i);
+                critterCache.addSavedMount(savedMount);
+                mountUuids.add(savedMount.getEntityUuid());
+            } else {
+                SavedPet savedPet = BenchmarkData.pet(random, ownerUuid, i);
+                critterCache.addSavedPet(savedPet);
+                petUuids.add(savedPet.getEntityUuid());
+            }
+        }
+
+        mountKeys = new UUID[BenchmarkData.LOOKUP_KEYS];
+        petKeys = new UUID[BenchmarkData.LOOKUP_KEYS];
+        for(int i = 0; i < BenchmarkData.LOOKUP_KEYS; i++) {
+            boolean hit = i % 2 == 0;
+            mountKeys[i] = hit ? mountUuids.get(random.nextInt(mountUuids.size())) : BenchmarkData.randomUuid(random);
+            petKeys[i] = hit ? petUuids.get(random.nextInt(petUuids.size())) : BenchmarkData.randomUuid(random);
+        }
+    }
+
+    @Benchmark
+    public SavedMount getSavedMount() {
+        return critterCache.getSavedMount(mountKeys[cursor++ & (BenchmarkData.LOOKUP_KEYS - 1)]);
+    }
+
+    @Benchmark
+    public boolean isSavedPet() {
+        return critterCache.isSavedPet(petKeys[cursor++ & (BenchmarkData.LOOKUP_KEYS - 1)]);
+    }
+
+}
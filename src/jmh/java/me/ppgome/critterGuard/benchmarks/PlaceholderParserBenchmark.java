@@ -0,0 +1,71 @@
+package me.ppgome.critterGuard.benchmarks;
+
+import me.ppgome.critterGuard.utility.MessageTemplate;
+import me.ppgome.critterGuard.utility.PlaceholderParser;
+import net.kyori.adventure.text.Component;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures building the denial and notification messages sent from the event handlers.
+ * The messages match the defaults in config.yml. The parse benchmarks run MiniMessage on every call, as raw strings
+ * do, and the render benchmarks fill in the templates CGConfig compiles on load.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "--enable-preview")
+public class PlaceholderParserBenchmark {
+
+    private static final String PERMISSION_MOUNT =
+            "<red>You do not have permission to mount this entity alone. It is owned by <yellow><player></yellow>.</red>";
+    private static final String NOTIFICATION_MOUNTED =
+            "<color:#FFD966><player> has taken control of your mount: <mount>.</color>";
+    private static final String CLICK_TAME =
+            "<green>Use <yellow><button></yellow> on a critter to tame it to <yellow><player></yellow>.</green>";
+
+    private MessageTemplate permissionMount;
+    private MessageTemplate notificationMounted;
+    private MessageTemplate clickTame;
+
+    @Setup
+    public void compileTemplates() {
+        permissionMount = MessageTemplate.compile(PERMISSION_MOUNT);
+        notificationMounted = MessageTemplate.compile(NOTIFICATION_MOUNTED);
+        clickTame = MessageTemplate.compile(CLICK_TAME);
+    }
+
+    @Benchmark
+    public Component parsePlayer() {
+        return PlaceholderParser.of(PERMISSION_MOUNT).player("Notch").parse();
+    }
+
+    @Benchmark
+    public Component parsePlayerAndMount() {
+        return PlaceholderParser.of(NOTIFICATION_MOUNTED).player("Notch").mount("Shadowfax").parse();
+    }
+
+    @Benchmark
+    public Component parsePlayerAndButton() {
+        return PlaceholderParser.of(CLICK_TAME).player("Notch").click().parse();
+    }
+
+    @Benchmark
+    public Component renderPlayer() {
+        return PlaceholderParser.of(permissionMount).player("Notch").parse();
+    }
+
+    @Benchmark
+    public Component renderPlayerAndMount() {
+        return PlaceholderParser.of(notificationMounted).player("Notch").mount("Shadowfax").parse();
+    }
+
+    @Benchmark
+    public Component renderPlayerAndButton() {
+        return PlaceholderParser.of(clickTame).player("Notch").click().parse();
+    }
+
+}
@@ -0,0 +1,113 @@
+package me.ppgome.critterGuard.benchmarks;
+
+import me.ppgome.critterGuard.PlayerMeta;
+import me.ppgome.critterGuard.commands.CommandUtils;
+import me.ppgome.critterGuard.database.SavedAnimal;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures lookups, paging, removal and identifier completion in a single player's owned critters, as done by the name
+ * event, the identifier commands and "/cg list".
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "--enable-preview")
+public class PlayerMetaBenchmark {
+
+    private static final String MOUNT_TYPE = "horse";
+    private static final String PET_TYPE = "wolf";
+
+    /**
+     * The number of critters the player owns.
+     */
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int critters;
+
+    private PlayerMeta playerMeta;
+    private UUID[] uuidKeys;
+    private String[] indexKeys;
+    private String[] nameKeys;
+    private String[] uuidPrefixKeys;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        Random random = new Random(BenchmarkData.SEED);
+        UUID ownerUuid = BenchmarkData.randomUuid(random);
+        playerMeta = BenchmarkData.playerMeta(ownerUuid);
+        for(int i = 0; i < critters; i++) {
+            SavedAnimal savedAnimal = i % 2 == 0 ? BenchmarkData.mount(random, ownerUuid, i)
+                    : BenchmarkData.pet(random, ownerUuid, i);
+            playerMeta.addOwnedAnimal(savedAnimal);
+        }
+
+        uuidKeys = new UUID[BenchmarkData.LOOKUP_KEYS];
+        indexKeys = new String[BenchmarkData.LOOKUP_KEYS];
+        nameKeys = new String[BenchmarkData.LOOKUP_KEYS];
+        uuidPrefixKeys = new String[BenchmarkData.LOOKUP_KEYS];
+        for(int i = 0; i < BenchmarkData.LOOKUP_KEYS; i++) {
+            SavedAnimal savedAnimal = playerMeta.getOwnedAnimalByIndex(random.nextInt(critters) + 1);
+            uuidKeys[i] = savedAnimal.getEntityUuid();
+            indexKeys[i] = String.valueOf(playerMeta.getIndexOf(savedAnimal));
+            nameKeys[i] = savedAnimal.getEntityName().toLowerCase();
+            uuidPrefixKeys[i] = savedAnimal.getEntityUuid().toString().substring(0, 8);
+        }
+    }
+
+    @Benchmark
+    public SavedAnimal getOwnedAnimalByUuid() {
+        return playerMeta.getOwnedAnimalByUuid(uuidKeys[cursor++ & (BenchmarkData.LOOKUP_KEYS - 1)]);
+    }
+
+    @Benchmark
+    public SavedAnimal searchByIndex() {
+        return CommandUtils.searchByIdentifier(indexKeys[cursor++ & (BenchmarkData.LOOKUP_KEYS - 1)], playerMeta);
+    }
+
+    @Benchmark
+    public int getIndexOf() {
+        SavedAnimal savedAnimal = playerMeta.getOwnedAnimalByUuid(uuidKeys[cursor++ & (BenchmarkData.LOOKUP_KEYS - 1)]);
+        return playerMeta.getIndexOf(savedAnimal);
+    }
+
+    @Benchmark
+    public List<SavedAnimal> listLastPageOfType() {
+        String entityType = (cursor++ & 1) == 0 ? MOUNT_TYPE : PET_TYPE;
+        int pages = (playerMeta.getOwnedCount(entityType) + 4) / 5;
+        return playerMeta.getOwnedPage(entityType, pages, 5);
+    }
+
+    @Benchmark
+    public SavedAnimal removeAndReadd() {
+        SavedAnimal savedAnimal = playerMeta.getOwnedAnimalByUuid(uuidKeys[cursor++ & (BenchmarkData.LOOKUP_KEYS - 1)]);
+        playerMeta.removeOwnedAnimal(savedAnimal);
+        playerMeta.addOwnedAnimal(savedAnimal);
+        return savedAnimal;
+    }
+
+    @Benchmark
+    public SavedAnimal searchByName() {
+        return CommandUtils.searchByIdentifier(nameKeys[cursor++ & (BenchmarkData.LOOKUP_KEYS - 1)], playerMeta);
+    }
+
+    @Benchmark
+    public List<String> completeIdentifier() {
+        return CommandUtils.completeIdentifier(uuidPrefixKeys[cursor++ & (BenchmarkData.LOOKUP_KEYS - 1)]
+                .substring(0, 3), playerMeta);
+    }
+
+    @Benchmark
+    public SavedAnimal searchByUuidPrefix() {
+        return CommandUtils.searchByIdentifier(uuidPrefixKeys[cursor++ & (BenchmarkData.LOOKUP_KEYS - 1)],
+                playerMeta);
+    }
+
+}
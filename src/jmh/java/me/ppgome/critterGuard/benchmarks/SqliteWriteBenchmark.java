@@ -0,0 +1,114 @@
+package me.ppgome.critterGuard.benchmarks;
+
+import com.j256.ormlite.dao.Dao;
+import com.j256.ormlite.dao.DaoManager;
+import com.j256.ormlite.jdbc.DataSourceConnectionSource;
+import com.j256.ormlite.support.ConnectionSource;
+import com.j256.ormlite.table.TableUtils;
+import me.ppgome.critterGuard.database.SavedMount;
+import me.ppgome.critterGuard.database.SqliteTuning;
+import me.ppgome.critterGuard.database.ValueDictionary;
+import org.openjdk.jmh.annotations.*;
+import org.sqlite.SQLiteConfig;
+import org.sqlite.SQLiteDataSource;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Properties;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures writes per second to a SQLite file on the real SavedMount table, with SQLite's defaults and with the
+ * high-throughput tuning from the config's defaults.
+ * Single saves each commit on their own, like saves made outside the write queue; batched saves commit every
+ * BATCH_SIZE rows, like a write queue flush.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 2, time = 3)
+@Measurement(iterations = 5, time = 3)
+@Fork(value = 1, jvmArgsAppend = "--enable-preview")
+public class SqliteWriteBenchmark {
+
+    private static final int BATCH_SIZE = 250;
+    private static final int MOUNTS = 10_000;
+
+    /**
+     * DEFAULT opens the file with SQLite's defaults, TUNED with the high-throughput pragmas.
+     */
+    @Param({"DEFAULT", "TUNED"})
+    public String mode;
+
+    private Path directory;
+    private ConnectionSource connectionSource;
+    private Dao<SavedMount, UUID> savedMountDao;
+    private SavedMount[] mounts;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        directory = Files.createTempDirectory("critterguard-bench");
+        String url = "jdbc:sqlite:" + directory.resolve("CritterGuard.db").toAbsolutePath();
+        Properties properties = mode.equals("TUNED")
+                ? new SqliteTuning("WAL", "NORMAL", 256L * 1024L * 1024L, 16384, 5000).toProperties()
+                : new Properties();
+        SQLiteDataSource dataSource = new SQLiteDataSource(new SQLiteConfig(properties));
+        dataSource.setUrl(url);
+        connectionSource = new DataSourceConnectionSource(dataSource, url);
+        ValueDictionary.install(connectionSource);
+        TableUtils.createTableIfNotExists(connectionSource, SavedMount.class);
+        savedMountDao = DaoManager.createDao(connectionSource, SavedMount.class);
+
+        Random random = new Random(BenchmarkData.SEED);
+        UUID ownerUuid = BenchmarkData.randomUuid(random);
+        mounts = new SavedMount[MOUNTS];
+        for(int i = 0; i < MOUNTS; i++) {
+            mounts[i] = BenchmarkData.mount(random, ownerUuid, i);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        DaoManager.clearCache();
+        connectionSource.close();
+        File[] files = directory.toFile().listFiles();
+        if(files != null) {
+            for(File file : files) {
+                Files.deleteIfExists(file.toPath());
+            }
+        }
+        Files.deleteIfExists(directory);
+    }
+
+    @Benchmark
+    public void saveSingle() throws Exception {
+        savedMountDao.createOrUpdate(nextMount());
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public void saveBatched() throws Exception {
+        savedMountDao.callBatchTasks(() -> {
+            for(int i = 0; i < BATCH_SIZE; i++) {
+                savedMountDao.createOrUpdate(nextMount());
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Picks the next mount to save, creating rows on the first pass through and updating them after.
+     *
+     * @return The mount
+     */
+    private SavedMount nextMount() {
+        SavedMount savedMount = mounts[cursor];
+        cursor = (cursor + 1) % MOUNTS;
+        return savedMount;
+    }
+
+}
@@ -1,5 +1,8 @@
 package me.ppgome.critterGuard;
 
+import me.ppgome.critterGuard.utility.CritterCapabilities;
+import me.ppgome.critterGuard.utility.CritterUtils;
+import me.ppgome.critterGuard.utility.MessageTemplate;
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.minimessage.MiniMessage;
 import org.bukkit.configuration.file.FileConfiguration;
@@ -29,62 +32,99 @@ public class CGConfig {
     public boolean LOG_DEATH_NOTIFICATIONS;
     public boolean ENABLE_DISGUISE_SADDLES;
     public boolean ENABLE_MINIMAP_MOD_OUTPUT;
+    public boolean ENABLE_EVENT_METRICS;
+
+    // Database
+    public int WRITE_BATCH_SIZE;
+    public long WRITE_FLUSH_INTERVAL;
+    public int DATABASE_READ_THREADS;
+    public int DATABASE_QUEUE_DEPTH;
+    public String DATABASE_BACKPRESSURE;
+    public long DATABASE_SHUTDOWN_TIMEOUT;
+    public String STORAGE_TYPE;
+    public String STORAGE_FILE;
+    public String STORAGE_HOST;
+    public int STORAGE_PORT;
+    public String STORAGE_DATABASE;
+    public String STORAGE_USERNAME;
+    public String STORAGE_PASSWORD;
+    public String STORAGE_PROPERTIES;
+    public int STORAGE_POOL_SIZE;
+    public long STORAGE_CONNECTION_TIMEOUT;
+    public long STORAGE_VALIDATION_TIMEOUT;
+    public int STORAGE_STATEMENT_TIMEOUT;
+    public boolean SQLITE_TUNED;
+    public String SQLITE_JOURNAL_MODE;
+    public String SQLITE_SYNCHRONOUS;
+    public long SQLITE_MMAP_SIZE_MB;
+    public int SQLITE_CACHE_SIZE_KB;
+    public int SQLITE_BUSY_TIMEOUT;
+
+    // Player names
+    public int NAME_CACHE_SIZE;
+    public long NAME_CACHE_TTL_MINUTES;
+
+    // Near
+    public int NEAR_DEFAULT_RADIUS;
+    public int NEAR_MAX_RADIUS;
 
     // Messages
     /*
-    Note: Values that support placeholders (playernames, buttons, other Strings) should be saved as String.
+    Note: Values that support placeholders (playernames, buttons, other Strings) should be saved as MessageTemplate.
         Otherwise, store them as Component and deserialize them through MiniMessage right away.
 
-    Placeholders need to be replaced at request and cannot be set here. Use the methods in MessageUtils to deserialize.
+    Placeholders need to be replaced at request and cannot be set here. Use PlaceholderParser to fill them in.
      */
-    public String GRANTED_FULL_ACCESS;
-    public String GRANTED_PASSENGER_ACCESS;
-    public String TARGET_GRANTED_FULL_ACCESS;
-    public String TARGET_GRANTED_PASSENGER_ACCESS;
-    public String REVOKED_ACCESS;
-    public String TARGET_REVOKED_ACCESS;
-    public String ACCESS_NO_PLAYER;
+    public MessageTemplate GRANTED_FULL_ACCESS;
+    public MessageTemplate GRANTED_PASSENGER_ACCESS;
+    public MessageTemplate TARGET_GRANTED_FULL_ACCESS;
+    public MessageTemplate TARGET_GRANTED_PASSENGER_ACCESS;
+    public MessageTemplate REVOKED_ACCESS;
+    public MessageTemplate TARGET_REVOKED_ACCESS;
+    public MessageTemplate ACCESS_NO_PLAYER;
     public Component ALREADY_HAS_ACCESS;
     public Component ALREADY_HAS_NO_ACCESS;
     public Component DOES_NOT_SUPPORT_PASSENGERS;
-    public String DISGUISE_SUCCESS;
+    public MessageTemplate DISGUISE_SUCCESS;
     public Component DISGUISE_VIEW_SELF_ENABLED;
     public Component DISGUISE_VIEW_SELF_DISABLED;
     public Component DISGUISE_ALREADY_ENABLED;
     public Component DISGUISE_ALREADY_DISABLED;
-    public String GPS_NO_MATCH;
+    public MessageTemplate GPS_NO_MATCH;
     public Component GPS_NO_PLAYERMETA;
     public Component LIST_DOES_NOT_EXIST_OR_OWN;
     public Component LIST_NO_MATCH;
-    public String NOTIFICATION_MOUNTED;
-    public String NOTIFICATION_DISMOUNTED;
-    public String NOTIFICATION_DIED;
+    public Component NEAR_NONE_FOUND;
+    public MessageTemplate NOTIFICATION_MOUNTED;
+    public MessageTemplate NOTIFICATION_DISMOUNTED;
+    public MessageTemplate NOTIFICATION_DIED;
     public Component NOTIFICATION_TOGGLE_ON;
     public Component NOTIFICATION_TOGGLE_OFF;
     public Component NOTIFICATION_ALREADY_ON;
     public Component NOTIFICATION_ALREADY_OFF;
     public Component PERMISSION_COMMAND;
-    public String PERMISSION_INTERACT;
-    public String PERMISSION_MOUNT;
-    public String SEAT_SWAP_SUCCESS;
+    public MessageTemplate PERMISSION_INTERACT;
+    public MessageTemplate PERMISSION_MOUNT;
+    public long DENIAL_MESSAGE_COOLDOWN_MILLIS;
+    public MessageTemplate SEAT_SWAP_SUCCESS;
     public Component SEAT_SWAP_FAILURE;
     public Component TAMING_TO_THEMSELVES;
-    public String TAMING_TO_OTHERS;
+    public MessageTemplate TAMING_TO_OTHERS;
     public Component UNTAME;
     public Component NOT_TAMED;
     public Component TAMED_NOT_YOURS;
-    public String TELEPORT_TO;
-    public String TELEPORT_HERE;
-    public String TELEPORT_NO_PLAYER;
+    public MessageTemplate TELEPORT_TO;
+    public MessageTemplate TELEPORT_HERE;
+    public MessageTemplate TELEPORT_NO_PLAYER;
     public Component TELEPORT_NO_PLAYERMETA;
-    public String  TELEPORT_NO_MATCH;
-    public String CLICK_GRANT_FULL_ACCESS;
-    public String CLICK_GRANT_PASSENGER_ACCESS;
-    public String CLICK_REVOKE_FULL_ACCESS;
-    public String CLICK_REVOKE_PASSENGER_ACCESS;
-    public String CLICK_TAME;
-    public String CLICK_UNTAME;
-    public String CLICK_INFO;
+    public MessageTemplate TELEPORT_NO_MATCH;
+    public MessageTemplate CLICK_GRANT_FULL_ACCESS;
+    public MessageTemplate CLICK_GRANT_PASSENGER_ACCESS;
+    public MessageTemplate CLICK_REVOKE_FULL_ACCESS;
+    public MessageTemplate CLICK_REVOKE_PASSENGER_ACCESS;
+    public MessageTemplate CLICK_TAME;
+    public MessageTemplate CLICK_UNTAME;
+    public MessageTemplate CLICK_INFO;
     public Component CLICK_TIMEOUT;
 
     //------------------------------------------------------------------------------------------------------------------
@@ -122,35 +162,79 @@ public class CGConfig {
         LOG_DEATH_NOTIFICATIONS = plugin.getConfig().getBoolean(togglesPath + "logDeathNotifications", true);
         ENABLE_DISGUISE_SADDLES = plugin.getConfig().getBoolean(togglesPath + "enableDisguiseSaddles", true);
         ENABLE_MINIMAP_MOD_OUTPUT = config.getBoolean(togglesPath + "enableMinimapModOutput", false);
+        ENABLE_EVENT_METRICS = config.getBoolean(togglesPath + "enableEventMetrics", false);
+
+        // DATABASE
+        String databasePath = "database.";
+        WRITE_BATCH_SIZE = config.getInt(databasePath + "writeBatchSize", 250);
+        WRITE_FLUSH_INTERVAL = config.getLong(databasePath + "writeFlushIntervalTicks", 40L);
+        DATABASE_READ_THREADS = config.getInt(databasePath + "readThreads", 2);
+        DATABASE_QUEUE_DEPTH = config.getInt(databasePath + "queueDepth", 10000);
+        DATABASE_BACKPRESSURE = config.getString(databasePath + "backpressure", "DROP");
+        DATABASE_SHUTDOWN_TIMEOUT = config.getLong(databasePath + "shutdownTimeoutSeconds", 30L);
+        String storagePath = databasePath + "storage.";
+        STORAGE_TYPE = config.getString(storagePath + "type", "SQLITE");
+        STORAGE_FILE = config.getString(storagePath + "file", "CritterGuard");
+        STORAGE_HOST = config.getString(storagePath + "host", "localhost");
+        STORAGE_PORT = config.getInt(storagePath + "port", 3306);
+        STORAGE_DATABASE = config.getString(storagePath + "database", "critterguard");
+        STORAGE_USERNAME = config.getString(storagePath + "username", "root");
+        STORAGE_PASSWORD = config.getString(storagePath + "password", "");
+        STORAGE_PROPERTIES = config.getString(storagePath + "properties", "");
+        STORAGE_POOL_SIZE = config.getInt(storagePath + "poolSize", 0);
+        STORAGE_CONNECTION_TIMEOUT = config.getLong(storagePath + "connectionTimeoutMillis", 10000L);
+        STORAGE_VALIDATION_TIMEOUT = config.getLong(storagePath + "validationTimeoutMillis", 5000L);
+        STORAGE_STATEMENT_TIMEOUT = config.getInt(storagePath + "statementTimeoutSeconds", 30);
+        String sqlitePath = storagePath + "sqlite.";
+        SQLITE_TUNED = config.getBoolean(sqlitePath + "highThroughput", false);
+        SQLITE_JOURNAL_MODE = config.getString(sqlitePath + "journalMode", "WAL");
+        SQLITE_SYNCHRONOUS = config.getString(sqlitePath + "synchronous", "NORMAL");
+        SQLITE_MMAP_SIZE_MB = config.getLong(sqlitePath + "mmapSizeMb", 256L);
+        SQLITE_CACHE_SIZE_KB = config.getInt(sqlitePath + "cacheSizeKb", 16384);
+        SQLITE_BUSY_TIMEOUT = config.getInt(sqlitePath + "busyTimeoutMillis", 5000);
+
+        // PLAYER NAMES
+        String playerNamesPath = "playerNames.";
+        NAME_CACHE_SIZE = config.getInt(playerNamesPath + "cacheSize", 5000);
+        NAME_CACHE_TTL_MINUTES = config.getLong(playerNamesPath + "cacheMinutes", 30L);
+
+        // NEAR
+        String nearPath = "near.";
+        NEAR_DEFAULT_RADIUS = config.getInt(nearPath + "defaultRadius", 16);
+        NEAR_MAX_RADIUS = config.getInt(nearPath + "maxRadius", 128);
+
+        // CRITTERS
+        CritterUtils.setCapabilities(CritterCapabilities.load(config.getConfigurationSection("critters"),
+                plugin::logError));
 
         // MESSAGES
         // --ACCESS
         String accessPath = "messages.access.";
-        GRANTED_FULL_ACCESS = PREFIX
-                + " " + config.getString(accessPath + "grantedFullAccess", errorMessage);
-        GRANTED_PASSENGER_ACCESS = PREFIX
-                + " " + config.getString(accessPath + "grantedPassengerAccess", errorMessage);
-        TARGET_GRANTED_FULL_ACCESS = PREFIX
-                + " " + config.getString(accessPath + "targetGrantedFullAccess", errorMessage);
-        TARGET_GRANTED_PASSENGER_ACCESS = PREFIX
-                + " " + config.getString(accessPath + "targetGrantedPassengerAccess", errorMessage);
-        REVOKED_ACCESS = PREFIX
-                + " " + config.getString(accessPath + "revokedAccess", errorMessage);
-        TARGET_REVOKED_ACCESS = PREFIX
-                + " " + config.getString(accessPath + "targetRevokedAccess", errorMessage);
+        GRANTED_FULL_ACCESS = MessageTemplate.compile(PREFIX
+                + " " + config.getString(accessPath + "grantedFullAccess", errorMessage));
+        GRANTED_PASSENGER_ACCESS = MessageTemplate.compile(PREFIX
+                + " " + config.getString(accessPath + "grantedPassengerAccess", errorMessage));
+        TARGET_GRANTED_FULL_ACCESS = MessageTemplate.compile(PREFIX
+                + " " + config.getString(accessPath + "targetGrantedFullAccess", errorMessage));
+        TARGET_GRANTED_PASSENGER_ACCESS = MessageTemplate.compile(PREFIX
+                + " " + config.getString(accessPath + "targetGrantedPassengerAccess", errorMessage));
+        REVOKED_ACCESS = MessageTemplate.compile(PREFIX
+                + " " + config.getString(accessPath + "revokedAccess", errorMessage));
+        TARGET_REVOKED_ACCESS = MessageTemplate.compile(PREFIX
+                + " " + config.getString(accessPath + "targetRevokedAccess", errorMessage));
         ALREADY_HAS_ACCESS = mm.deserialize(PREFIX
                 + " " + config.getString(accessPath + "alreadyHasAccess", errorMessage));
         ALREADY_HAS_NO_ACCESS = mm.deserialize(PREFIX
                 + " " + config.getString(accessPath + "alreadyHasNoAccess", errorMessage));
         DOES_NOT_SUPPORT_PASSENGERS = mm.deserialize(PREFIX
                 + " " + config.getString(accessPath + "entityDoesNotSupportPassengers", errorMessage));
-        ACCESS_NO_PLAYER = PREFIX
-                + " " + config.getString(accessPath + "unableToFindPlayer", errorMessage);
+        ACCESS_NO_PLAYER = MessageTemplate.compile(PREFIX
+                + " " + config.getString(accessPath + "unableToFindPlayer", errorMessage));
 
         // --DISGUISE
         String disguisePath = "messages.disguise.";
-        DISGUISE_SUCCESS = PREFIX
-                + " " + config.getString(disguisePath + "success", errorMessage);
+        DISGUISE_SUCCESS = MessageTemplate.compile(PREFIX
+                + " " + config.getString(disguisePath + "success", errorMessage));
         DISGUISE_VIEW_SELF_ENABLED = mm.deserialize(PREFIX
                 + " " + config.getString(disguisePath + "viewSelfEnabled", errorMessage));
         DISGUISE_VIEW_SELF_DISABLED = mm.deserialize(PREFIX
@@ -162,8 +246,8 @@ public class CGConfig {
 
         // --GPS
         String gpsPath = "messages.gps.";
-        GPS_NO_MATCH = PREFIX
-                + " " + config.getString(gpsPath + "noMatch", errorMessage);
+        GPS_NO_MATCH = MessageTemplate.compile(PREFIX
+                + " " + config.getString(gpsPath + "noMatch", errorMessage));
         GPS_NO_PLAYERMETA = mm.deserialize(PREFIX
                 + " " + config.getString(gpsPath + "noPlayerData", errorMessage));
 
@@ -174,14 +258,19 @@ public class CGConfig {
         LIST_NO_MATCH = mm.deserialize(PREFIX
                 + " " + config.getString(listPath + "noneMatched", errorMessage));
 
+        // --NEAR
+        String nearMessagesPath = "messages.near.";
+        NEAR_NONE_FOUND = mm.deserialize(PREFIX
+                + " " + config.getString(nearMessagesPath + "noneFound", errorMessage));
+
         // --NOTIFICATION
         String notificationPath = "messages.notification.";
-        NOTIFICATION_MOUNTED = PREFIX
-                + " " + config.getString(notificationPath + "mounted", errorMessage);
-        NOTIFICATION_DISMOUNTED = PREFIX
-                + " " + config.getString(notificationPath + "dismounted", errorMessage);
-        NOTIFICATION_DIED = PREFIX
-                + " " + config.getString(notificationPath + "died", errorMessage);
+        NOTIFICATION_MOUNTED = MessageTemplate.compile(PREFIX
+                + " " + config.getString(notificationPath + "mounted", errorMessage));
+        NOTIFICATION_DISMOUNTED = MessageTemplate.compile(PREFIX
+                + " " + config.getString(notificationPath + "dismounted", errorMessage));
+        NOTIFICATION_DIED = MessageTemplate.compile(PREFIX
+                + " " + config.getString(notificationPath + "died", errorMessage));
         NOTIFICATION_TOGGLE_ON = mm.deserialize(PREFIX
                 + " " + config.getString(notificationPath + "toggleOn", errorMessage));
         NOTIFICATION_TOGGLE_OFF = mm.deserialize(PREFIX
@@ -195,15 +284,17 @@ public class CGConfig {
         String permissionPath = "messages.permission.";
         PERMISSION_COMMAND = mm.deserialize(PREFIX
                 + " " + config.getString(permissionPath + "command", errorMessage));
-        PERMISSION_INTERACT = PREFIX
-                + " " + config.getString(permissionPath + "interact", errorMessage);
-        PERMISSION_MOUNT = PREFIX
-                + " " + config.getString(permissionPath + "mount", errorMessage);
+        PERMISSION_INTERACT = MessageTemplate.compile(PREFIX
+                + " " + config.getString(permissionPath + "interact", errorMessage));
+        PERMISSION_MOUNT = MessageTemplate.compile(PREFIX
+                + " " + config.getString(permissionPath + "mount", errorMessage));
+        DENIAL_MESSAGE_COOLDOWN_MILLIS = (long) (config.getDouble(permissionPath + "denialCooldownSeconds", 3.0)
+                * 1000);
 
         // --SEAT SWAPPING
         String seatSwapPath = "messages.seatSwapping.";
-        SEAT_SWAP_SUCCESS = PREFIX
-                + " " + config.getString(seatSwapPath + "success", errorMessage);
+        SEAT_SWAP_SUCCESS = MessageTemplate.compile(PREFIX
+                + " " + config.getString(seatSwapPath + "success", errorMessage));
         SEAT_SWAP_FAILURE = mm.deserialize(PREFIX
                 + " " + config.getString(seatSwapPath + "failure", errorMessage));
 
@@ -211,8 +302,8 @@ public class CGConfig {
         String tamingPath = "messages.taming.";
         TAMING_TO_THEMSELVES = mm.deserialize(PREFIX
                 + " " + config.getString(tamingPath + "tamingToThemselves", errorMessage));
-        TAMING_TO_OTHERS = PREFIX
-                + " " + config.getString(tamingPath + "tamingToOthers", errorMessage);
+        TAMING_TO_OTHERS = MessageTemplate.compile(PREFIX
+                + " " + config.getString(tamingPath + "tamingToOthers", errorMessage));
         UNTAME = mm.deserialize(PREFIX
                 + " " + config.getString(tamingPath + "untame", errorMessage));
         NOT_TAMED = mm.deserialize(PREFIX
@@ -222,33 +313,33 @@ public class CGConfig {
 
         // --TELEPORT
         String teleportPath = "messages.teleport.";
-        TELEPORT_TO = PREFIX
-                + " " + config.getString(teleportPath + "teleportTo", errorMessage);
-        TELEPORT_HERE = PREFIX
-                + " " + config.getString(teleportPath + "teleportHere", errorMessage);
-        TELEPORT_NO_PLAYER = PREFIX
-                + " " + config.getString(teleportPath + "unableToFindPlayer", errorMessage);
+        TELEPORT_TO = MessageTemplate.compile(PREFIX
+                + " " + config.getString(teleportPath + "teleportTo", errorMessage));
+        TELEPORT_HERE = MessageTemplate.compile(PREFIX
+                + " " + config.getString(teleportPath + "teleportHere", errorMessage));
+        TELEPORT_NO_PLAYER = MessageTemplate.compile(PREFIX
+                + " " + config.getString(teleportPath + "unableToFindPlayer", errorMessage));
         TELEPORT_NO_PLAYERMETA = mm.deserialize(PREFIX
                 + " " + config.getString(teleportPath + "noPlayerData", errorMessage));
-        TELEPORT_NO_MATCH = PREFIX
-                + " " + config.getString(teleportPath + "noMatch", errorMessage);
+        TELEPORT_NO_MATCH = MessageTemplate.compile(PREFIX
+                + " " + config.getString(teleportPath + "noMatch", errorMessage));
 
         // --CLICK ACTIONS
         String clickActionsPath = "messages.clickActions.";
-        CLICK_GRANT_FULL_ACCESS = PREFIX
-                + " " + config.getString(clickActionsPath + "toGrantFullAccess", errorMessage);
-        CLICK_GRANT_PASSENGER_ACCESS = PREFIX
-                + " " + config.getString(clickActionsPath + "toGrantPassengerAccess", errorMessage);
-        CLICK_REVOKE_FULL_ACCESS = PREFIX
-                + " " + config.getString(clickActionsPath + "toRevokeFullAccess", errorMessage);
-        CLICK_REVOKE_PASSENGER_ACCESS = PREFIX
-                + " " + config.getString(clickActionsPath + "toRevokePassengerAccess", errorMessage);
-        CLICK_TAME = PREFIX
-                + " " + config.getString(clickActionsPath + "toTameToOthers", errorMessage);
-        CLICK_UNTAME = PREFIX
-                + " " + config.getString(clickActionsPath + "toUntame", errorMessage);
-        CLICK_INFO = PREFIX
-                + " " + config.getString(clickActionsPath + "toGetInfo", errorMessage);
+        CLICK_GRANT_FULL_ACCESS = MessageTemplate.compile(PREFIX
+                + " " + config.getString(clickActionsPath + "toGrantFullAccess", errorMessage));
+        CLICK_GRANT_PASSENGER_ACCESS = MessageTemplate.compile(PREFIX
+                + " " + config.getString(clickActionsPath + "toGrantPassengerAccess", errorMessage));
+        CLICK_REVOKE_FULL_ACCESS = MessageTemplate.compile(PREFIX
+                + " " + config.getString(clickActionsPath + "toRevokeFullAccess", errorMessage));
+        CLICK_REVOKE_PASSENGER_ACCESS = MessageTemplate.compile(PREFIX
+                + " " + config.getString(clickActionsPath + "toRevokePassengerAccess", errorMessage));
+        CLICK_TAME = MessageTemplate.compile(PREFIX
+                + " " + config.getString(clickActionsPath + "toTameToOthers", errorMessage));
+        CLICK_UNTAME = MessageTemplate.compile(PREFIX
+                + " " + config.getString(clickActionsPath + "toUntame", errorMessage));
+        CLICK_INFO = MessageTemplate.compile(PREFIX
+                + " " + config.getString(clickActionsPath + "toGetInfo", errorMessage));
         CLICK_TIMEOUT = mm.deserialize(PREFIX
                 + " " + config.getString(clickActionsPath + "timeout", errorMessage));
     }
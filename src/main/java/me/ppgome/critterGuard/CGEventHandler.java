@@ -4,19 +4,24 @@ import io.papermc.paper.event.player.PlayerNameEntityEvent;
 import me.ppgome.critterGuard.database.*;
 import me.ppgome.critterGuard.disguisesaddles.DisguiseSaddleHandler;
 import me.ppgome.critterGuard.disguisesaddles.LibsDisguiseProvider;
+import me.ppgome.critterGuard.metrics.EventMetric;
+import me.ppgome.critterGuard.metrics.EventMetrics;
 import me.ppgome.critterGuard.utility.*;
 import net.kyori.adventure.text.serializer.plain.PlainTextComponentSerializer;
 import org.bukkit.*;
 import org.bukkit.entity.*;
 import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
 import org.bukkit.event.entity.*;
 import org.bukkit.event.player.PlayerInteractEntityEvent;
 import org.bukkit.event.player.PlayerJoinEvent;
 import org.bukkit.event.player.PlayerQuitEvent;
 import org.bukkit.event.player.PlayerToggleSneakEvent;
+import org.bukkit.event.world.EntitiesLoadEvent;
 import org.bukkit.event.world.EntitiesUnloadEvent;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
 
@@ -37,6 +42,10 @@ public class CGEventHandler implements Listener {
      * The instance of the configuration class.
      */
     private CGConfig config;
+    /**
+     * The instance of the EventMetrics registry for recording handler latency.
+     */
+    private EventMetrics eventMetrics;
     /**
      * The instance of the SavedMountTable for interacting with the database.
      */
@@ -45,6 +54,10 @@ public class CGEventHandler implements Listener {
      * The instance of the SavedPetTable for interacting with the database.
      */
     private SavedPetTable savedPetTable;
+    /**
+     * The instance of the WriteBehindQueue for batching writes to the database.
+     */
+    private WriteBehindQueue writeQueue;
     /**
      * The instance of the CritterCache for interacting with the data stored in-memory.
      */
@@ -69,6 +82,10 @@ public class CGEventHandler implements Listener {
      * The instance of the MountSeatHandler for swapping player seats on multi-seat mounts.
      */
     private MountSeatHandler mountSeatHandler;
+    /**
+     * The instance of the DenialNotifier for telling players who owns the critters they can't use.
+     */
+    private DenialNotifier denialNotifier;
     /**
      * True if LibsDisguises is present and disguise saddles are enabled. False if not.
      */
@@ -79,10 +96,13 @@ public class CGEventHandler implements Listener {
     public CGEventHandler(CritterGuard plugin) {
         this.plugin = plugin;
         this.config = plugin.getCGConfig();
+        this.eventMetrics = plugin.getEventMetrics();
         this.savedMountTable = plugin.getSavedMountTable();
         this.savedPetTable = plugin.getSavedPetTable();
+        this.writeQueue = plugin.getWriteBehindQueue();
         this.critterCache = plugin.getCritterCache();
         this.tamingHandler = plugin.getCritterTamingHandler();
+        this.denialNotifier = new DenialNotifier(plugin);
         this.accessHandler = plugin.getCritterAccessHandler();
         this.disguiseSaddleHandler = plugin.getDisguiseSaddleHandler();
         this.disguiseProvider = plugin.getDisguiseProvider();
@@ -94,7 +114,17 @@ public class CGEventHandler implements Listener {
 
     @EventHandler
     public void onPlayerJoin(PlayerJoinEvent event) {
+        long start = eventMetrics.start();
+        try {
+            handlePlayerJoin(event);
+        } finally {
+            eventMetrics.record(EventMetric.JOIN, start);
+        }
+    }
+
+    private void handlePlayerJoin(PlayerJoinEvent event) {
         UUID playerUuid = event.getPlayer().getUniqueId();
+        plugin.getPlayerNameCache().remember(playerUuid, event.getPlayer().getName());
         PlayerMeta playerMeta = critterCache.getPlayerMeta(playerUuid);
         if(playerMeta == null) {
             critterCache.addPlayerMeta(new PlayerMeta(playerUuid, plugin));
@@ -106,6 +136,19 @@ public class CGEventHandler implements Listener {
 
     @EventHandler
     public void onCritterTame(EntityTameEvent event) {
+        long start = eventMetrics.start();
+        try {
+            handleCritterTame(event);
+        } finally {
+            eventMetrics.record(EventMetric.TAME, start);
+        }
+    }
+
+    private void handleCritterTame(EntityTameEvent event) {
+        if(isProtectedUntilLoaded(event.getEntity())) {
+            event.setCancelled(true);
+            return;
+        }
         if(event.getOwner() instanceof OfflinePlayer player) {
             tamingHandler.handleTaming(player, event.getEntity());
         }
@@ -113,12 +156,21 @@ public class CGEventHandler implements Listener {
 
     @EventHandler
     public void onCritterDeath(EntityDeathEvent event) {
+        long start = eventMetrics.start();
+        try {
+            handleCritterDeath(event);
+        } finally {
+            eventMetrics.record(EventMetric.DEATH, start);
+        }
+    }
+
+    private void handleCritterDeath(EntityDeathEvent event) {
         Entity entity = event.getEntity();
         if(CritterUtils.isMountableEntity(entity)) {
             SavedMount savedMount = critterCache.getSavedMount(entity.getUniqueId());
             if(savedMount != null && entity.getPassengers().getFirst() instanceof Player player) {
                 UUID playerUuid = player.getUniqueId();
-                if(savedMount.hasFullAccess(playerUuid) && !savedMount.isOwner(playerUuid)) {
+                if(savedMount.resolveAccess(playerUuid) == AccessLevel.FULL) {
                     notifyPlayer(player, savedMount, config.NOTIFICATION_DIED, critterCache);
                     plugin.logInfo(player.getName() + " was riding " +
                             savedMount.getEntityOwnerUuid() + "'s mount when it died: " +
@@ -127,14 +179,28 @@ public class CGEventHandler implements Listener {
             }
         }
         if(!CritterUtils.canHandleTaming(entity)) return; // Only handle tameable entities
-        tamingHandler.processAnimalDeath(entity.getUniqueId());
+        UUID entityUuid = entity.getUniqueId();
+        critterCache.runWhenLoaded(() -> tamingHandler.processAnimalDeath(entityUuid));
     }
 
     @EventHandler
     public void onCritterInteract(PlayerInteractEntityEvent event) {
+        long start = eventMetrics.start();
+        try {
+            handleCritterInteract(event);
+        } finally {
+            eventMetrics.record(EventMetric.INTERACT, start);
+        }
+    }
+
+    private void handleCritterInteract(PlayerInteractEntityEvent event) {
         Entity entity = event.getRightClicked();
 
         if (!CritterUtils.canHandleTaming(entity)) return;
+        if(!critterCache.isLoaded()) {
+            event.setCancelled(true);
+            return;
+        }
 
         Player player = event.getPlayer();
         UUID playerUuid = player.getUniqueId();
@@ -148,30 +214,35 @@ public class CGEventHandler implements Listener {
         }
 
         // Player has mount access, or this mount isn't tamed. Allow passthrough
-        if(savedMount == null || savedMount.hasAccess(playerUuid) || savedMount.isOwner(playerUuid)) return;
-            // Saved mount, player is not the owner
-        if (!savedMount.hasAccess(playerUuid)) {
-            if(config.CAN_BREED_LOCKED_ANIMALS && entity instanceof Animals animal && animal.isAdult()
-                    && animal.isBreedItem(player.getActiveItem())) {
-                return; // Allow breeding
-            }
-            // Player does not have access, prevent interaction
-            event.setCancelled(true);
-            // Let the player know who the owner is. Get name asynchronously as it's thread-blocking
-            accessHandler.getOwnerName(savedMount.getEntityOwnerUuid()).thenAccept(ownerName -> {
-                Bukkit.getScheduler().runTask(plugin, () -> player.sendMessage(PlaceholderParser
-                        .of(config.PERMISSION_INTERACT)
-                        .player(ownerName)
-                        .parse()));
-            });
+        if(savedMount == null || savedMount.resolveAccess(playerUuid).canRide()) return;
+        // Saved mount, player does not have access
+        if(config.CAN_BREED_LOCKED_ANIMALS && entity instanceof Animals animal && animal.isAdult()
+                && animal.isBreedItem(player.getActiveItem())) {
+            return; // Allow breeding
         }
+        // Player does not have access, prevent interaction
         event.setCancelled(true);
+        // Let the player know who the owner is
+        denialNotifier.denyInteract(player, savedMount);
     }
 
     @EventHandler
     public void onPlayerNameCritter(PlayerNameEntityEvent event) {
+        long start = eventMetrics.start();
+        try {
+            handlePlayerNameCritter(event);
+        } finally {
+            eventMetrics.record(EventMetric.NAME, start);
+        }
+    }
+
+    private void handlePlayerNameCritter(PlayerNameEntityEvent event) {
         UUID entityUuid = event.getEntity().getUniqueId(); // The entity being named
         Player player = event.getPlayer(); // The player who is naming the entity
+        if(isProtectedUntilLoaded(event.getEntity())) {
+            event.setCancelled(true);
+            return;
+        }
         PlayerMeta playerMeta = critterCache.getPlayerMeta(player.getUniqueId());
         if(event.getName() == null) return; // No name provided
 
@@ -179,18 +250,11 @@ public class CGEventHandler implements Listener {
             SavedAnimal savedAnimal = playerMeta.getOwnedAnimalByUuid(entityUuid);
             if(savedAnimal != null) {
                 String newName = PlainTextComponentSerializer.plainText().serialize(event.getName());
-                SavedMount savedMount = critterCache.getSavedMount(entityUuid);
-                if(savedMount != null) {
-                    savedMount.setEntityName(newName);
+                playerMeta.renameOwnedAnimal(savedAnimal, newName);
+                if(savedAnimal instanceof SavedMount savedMount) {
                     savedMountTable.save(savedMount);
-                } else {
-                    savedAnimal.setEntityName(newName);
-                    savedPetTable.getSavedPet(entityUuid.toString()).thenAccept(savedPet -> {
-                        if(savedPet != null) {
-                            savedPet.setEntityName(newName);
-                            savedPetTable.save(savedPet);
-                        }
-                    });
+                } else if(savedAnimal instanceof SavedPet savedPet) {
+                    savedPetTable.save(savedPet);
                 }
             }
         }
@@ -198,13 +262,26 @@ public class CGEventHandler implements Listener {
 
     @EventHandler
     public void onPlayerLeashCritter(PlayerLeashEntityEvent event) {
+        long start = eventMetrics.start();
+        try {
+            handlePlayerLeashCritter(event);
+        } finally {
+            eventMetrics.record(EventMetric.LEASH, start);
+        }
+    }
+
+    private void handlePlayerLeashCritter(PlayerLeashEntityEvent event) {
         Entity entity = event.getEntity();
+        if(isProtectedUntilLoaded(entity)) {
+            event.setCancelled(true);
+            return;
+        }
         UUID entityUuid = entity.getUniqueId();
         UUID playerUuid = event.getPlayer().getUniqueId();
         SavedMount savedMount = critterCache.getSavedMount(entityUuid);
 
         if(savedMount != null) {
-            if(savedMount.getEntityOwnerUuid().equals(playerUuid) || savedMount.hasFullAccess(playerUuid)) return;
+            if(savedMount.resolveAccess(playerUuid).canControl()) return;
             event.setCancelled(true);
             return;
         } else if(critterCache.isSavedPet(entityUuid)) {
@@ -220,21 +297,33 @@ public class CGEventHandler implements Listener {
 
     @EventHandler
     public void onCritterMount(EntityMountEvent event) {
+        long start = eventMetrics.start();
+        try {
+            handleCritterMount(event);
+        } finally {
+            eventMetrics.record(EventMetric.MOUNT, start);
+        }
+    }
+
+    private void handleCritterMount(EntityMountEvent event) {
         Entity passenger = event.getEntity();
         Entity mount = event.getMount();
         UUID mountUuid = mount.getUniqueId();
 
         if(mountSeatHandler.isPlayer(mount)) return; // For disguised saddle mounting
         if(!(passenger instanceof Player player)) return; // Only handle player mounts
+        if(isProtectedUntilLoaded(mount)) {
+            event.setCancelled(true);
+            return;
+        }
 
         // Handle a saved mount
         SavedMount savedMount = critterCache.getSavedMount(mountUuid);
         if(savedMount != null) {
-            boolean hasAccess = savedMount.hasAccess(passenger.getUniqueId());
-            boolean isFullAccess = savedMount.hasFullAccess(passenger.getUniqueId());
+            AccessLevel accessLevel = savedMount.resolveAccess(passenger.getUniqueId());
             if(!mount.getPassengers().isEmpty()) {
                 // Player has passenger access or is the owner, allow mounting
-                if(hasAccess || savedMount.isOwner(passenger.getUniqueId())) {
+                if(accessLevel.canRide()) {
                     if(!libsDisguisesPresent || !disguiseProvider.isDisguised(mount)) return;
                     event.setCancelled(true);
 
@@ -248,10 +337,10 @@ public class CGEventHandler implements Listener {
                     playerStack.getLast().addPassenger(player);
                 }
                 // Player has full access, allow mounting
-            } else if(isFullAccess || savedMount.isOwner(passenger.getUniqueId())) {
+            } else if(accessLevel.canControl()) {
 
                 // Notify owner that another player is controlling their mount
-                if(isFullAccess) {
+                if(accessLevel == AccessLevel.FULL) {
                     // Check passenger list AFTER the event to see if the passenger of this event is now the controller
                     Bukkit.getScheduler().runTaskLater(plugin, () -> {
                         if(mount.getPassengers().getFirst().getUniqueId().equals(passenger.getUniqueId())) {
@@ -270,13 +359,8 @@ public class CGEventHandler implements Listener {
             // Player does not have access, prevent mounting
             event.setCancelled(true);
             if(!libsDisguisesPresent || !disguiseProvider.isDisguised(mount)) {
-                // Let the player know who the owner is. Get name asynchronously as it's thread-blocking
-                accessHandler.getOwnerName(savedMount.getEntityOwnerUuid()).thenAccept(ownerName -> {
-                    Bukkit.getScheduler().runTask(plugin, () -> player.sendMessage(PlaceholderParser
-                            .of(config.PERMISSION_MOUNT)
-                            .player(ownerName)
-                            .parse()));
-                });
+                // Let the player know who the owner is
+                denialNotifier.denyMount(player, savedMount);
             }
             return;
         }
@@ -289,13 +373,22 @@ public class CGEventHandler implements Listener {
 
     @EventHandler
     public void onSneakToggle(PlayerToggleSneakEvent event) {
+        long start = eventMetrics.start();
+        try {
+            handleSneakToggle(event);
+        } finally {
+            eventMetrics.record(EventMetric.SNEAK, start);
+        }
+    }
+
+    private void handleSneakToggle(PlayerToggleSneakEvent event) {
         if(!event.isSneaking()) return;
         Player player = event.getPlayer();
         Entity mount = player.getVehicle();
 
         if(mountSeatHandler.isPlayer(mount)) mountSeatHandler.teleportDown(mount, player);
 
-        if((!(CritterUtils.isCamel(mount)) && !(CritterUtils.isHappyGhast(mount)))) return;
+        if(!CritterUtils.isMultiSeatMount(mount)) return;
 
         if(libsDisguisesPresent && disguiseProvider.isDisguised(mount)) {
             disguisedSeatSwap(player, mount);
@@ -356,18 +449,41 @@ public class CGEventHandler implements Listener {
 
     @EventHandler
     public void onPlayerQuit(PlayerQuitEvent event) {
+        long start = eventMetrics.start();
+        try {
+            handlePlayerQuit(event);
+        } finally {
+            eventMetrics.record(EventMetric.QUIT, start);
+        }
+    }
+
+    private void handlePlayerQuit(PlayerQuitEvent event) {
+        denialNotifier.clearPlayer(event.getPlayer().getUniqueId());
         plugin.processPlayerLogout(event.getPlayer());
     }
 
-    @EventHandler
+    @EventHandler(priority = EventPriority.HIGH, ignoreCancelled = true)
     public void onCritterDamage(EntityDamageEvent event) {
+        long start = eventMetrics.start();
+        try {
+            handleCritterDamage(event);
+        } finally {
+            eventMetrics.record(EventMetric.DAMAGE, start);
+        }
+    }
+
+    private void handleCritterDamage(EntityDamageEvent event) {
         Entity entity = event.getEntity();
+        // Fires for every damaged entity on the server, so reject anything that isn't a critter first
+        if(!CritterUtils.isProtectable(entity.getType())) return;
+        if(!critterCache.isLoaded()) {
+            event.setCancelled(true);
+            return;
+        }
         UUID entityUuid = entity.getUniqueId();
-        Tameable pet = (Tameable) entity;
         if(CritterUtils.isMountableEntity(entity)) {
-            Vehicle mount = (Vehicle) entity;
             if(critterCache.getSavedMount(entityUuid) != null) {
-                if(mount.getPassengers().isEmpty()) {
+                if(entity.getPassengers().isEmpty()) {
                     event.setCancelled(true);
                 } else {
                     Entity causingEntity = event.getDamageSource().getCausingEntity();
@@ -377,7 +493,7 @@ public class CGEventHandler implements Listener {
                 }
             }
 
-        } else if(critterCache.isSavedPet(entityUuid) || pet.isTamed()) {
+        } else if(entity instanceof Tameable pet && (critterCache.isSavedPet(entityUuid) || pet.isTamed())) {
             Entity damager = event.getDamageSource().getCausingEntity();
             UUID damagerUuid = null;
             if(damager != null) damagerUuid = damager.getUniqueId();
@@ -394,6 +510,15 @@ public class CGEventHandler implements Listener {
 
     @EventHandler
     public void onCritterDismount(EntityDismountEvent event) {
+        long start = eventMetrics.start();
+        try {
+            handleCritterDismount(event);
+        } finally {
+            eventMetrics.record(EventMetric.DISMOUNT, start);
+        }
+    }
+
+    private void handleCritterDismount(EntityDismountEvent event) {
         Entity entity = event.getDismounted();
         Entity dismounting = event.getEntity();
 
@@ -409,7 +534,7 @@ public class CGEventHandler implements Listener {
 
                 // Handles notifying the owner that someone is on their mount, if applicable
                 UUID playerUUID = player.getUniqueId();
-                if (savedMount.hasFullAccess(playerUUID) && !savedMount.isOwner(playerUUID) &&
+                if (savedMount.resolveAccess(playerUUID) == AccessLevel.FULL &&
                         entity.getPassengers().getFirst().getUniqueId().equals(playerUUID)) {
                     notifyPlayer(player, savedMount, config.NOTIFICATION_DISMOUNTED, critterCache);
                     plugin.logInfo(player.getName() + " stopped riding " +
@@ -426,43 +551,109 @@ public class CGEventHandler implements Listener {
 
     @EventHandler
     public void onEntitiesUnload(EntitiesUnloadEvent event) {
-        World world = event.getWorld();
-        for(Entity entity : event.getEntities()) {
+        long start = eventMetrics.start();
+        try {
+            handleEntitiesUnload(event);
+        } finally {
+            eventMetrics.record(EventMetric.UNLOAD, start);
+        }
+    }
+
+    private void handleEntitiesUnload(EntitiesUnloadEvent event) {
+        if(!critterCache.isLoaded()) return; // Nothing to update until the saved critters are in the cache
+        trackLocations(event.getEntities());
+    }
+
+    @EventHandler
+    public void onEntitiesLoad(EntitiesLoadEvent event) {
+        long start = eventMetrics.start();
+        try {
+            handleEntitiesLoad(event);
+        } finally {
+            eventMetrics.record(EventMetric.LOAD, start);
+        }
+    }
+
+    private void handleEntitiesLoad(EntitiesLoadEvent event) {
+        if(!critterCache.isLoaded()) return; // The chunk index is built from the database once loading finishes
+        trackLocations(event.getEntities());
+    }
+
+    /**
+     * Updates the last known location of every saved critter in a batch of loaded or unloaded entities.
+     * The chunk index is updated right away and the critters that moved are written together in one transaction.
+     *
+     * @param entities The entities that were loaded or unloaded
+     */
+    private void trackLocations(List<Entity> entities) {
+        List<LastSeenUpdate> mountUpdates = new ArrayList<>();
+        List<LastSeenUpdate> petUpdates = new ArrayList<>();
+        for(Entity entity : entities) {
             if(CritterUtils.canHandleTaming(entity)) {
                 UUID entityUuid = entity.getUniqueId();
                 SavedMount savedMount = critterCache.getSavedMount(entityUuid);
                 if(savedMount != null) {
                     Location location = entity.getLocation();
-                    savedMount.setLastLocation(new Location(world, location.x(), location.y(), location.z()));
-                    savedMountTable.save(savedMount);
-                } else if(critterCache.isSavedPet(entityUuid) && entity instanceof Tameable tameable && tameable.isTamed()) {
-                    for(SavedAnimal cachedAnimal : critterCache.getPlayerMeta(tameable.getOwnerUniqueId()).getOwnedList()) {
-                        if (cachedAnimal.getEntityUuid().equals(entityUuid)) {
-                            Location location = entity.getLocation();
-                            cachedAnimal.setLastLocation(new Location(world, location.x(), location.y(), location.z()));
-                            savedPetTable.save((SavedPet) cachedAnimal);
-                        }
-                    }
+                    if(savedMount.isAtLastLocation(location)) continue;
+                    critterCache.updateLastLocation(savedMount, location);
+                    mountUpdates.add(LastSeenUpdate.of(savedMount));
+                } else {
+                    SavedPet savedPet = critterCache.getSavedPet(entityUuid);
+                    if(savedPet == null) continue;
+                    Location location = entity.getLocation();
+                    if(savedPet.isAtLastLocation(location)) continue;
+                    critterCache.updateLastLocation(savedPet, location);
+                    petUpdates.add(LastSeenUpdate.of(savedPet));
                 }
             }
         }
+        writeQueue.submitLastSeen(mountUpdates, petUpdates);
     }
 
     @EventHandler
     public void onEntityBreed(EntityBreedEvent event) {
+        long start = eventMetrics.start();
+        try {
+            handleEntityBreed(event);
+        } finally {
+            eventMetrics.record(EventMetric.BREED, start);
+        }
+    }
+
+    private void handleEntityBreed(EntityBreedEvent event) {
         if(!(event.getBreeder() instanceof Player player) || !(event.getEntity() instanceof Tameable entity)) return;
         if(entity.isTamed()) {
             System.out.println("Taming 1");
-            tamingHandler.handleTaming(player, entity);
+            critterCache.runWhenLoaded(() -> tamingHandler.handleTaming(player, entity));
         }
     }
 
     @EventHandler
     public void onCreatureSpawn(CreatureSpawnEvent event) {
+        long start = eventMetrics.start();
+        try {
+            handleCreatureSpawn(event);
+        } finally {
+            eventMetrics.record(EventMetric.SPAWN, start);
+        }
+    }
+
+    private void handleCreatureSpawn(CreatureSpawnEvent event) {
         Entity entity = event.getEntity();
         if(event.getSpawnReason().equals(CreatureSpawnEvent.SpawnReason.SPAWNER_EGG) && entity instanceof Tameable tameable) {
             tameable.setTamed(false);
         }
     }
 
+    /**
+     * Checks if an entity has to be treated as protected because the saved critters are still loading.
+     * Until the cache is loaded, any critter the plugin could be tracking might be someone's, so it's left alone.
+     *
+     * @param entity The entity being checked
+     * @return True if the entity could be a tracked critter and the cache isn't loaded yet, false if not
+     */
+    private boolean isProtectedUntilLoaded(Entity entity) {
+        return !critterCache.isLoaded() && CritterUtils.canHandleTaming(entity);
+    }
+
 }
@@ -2,14 +2,17 @@ package me.ppgome.critterGuard;
 
 import me.ppgome.critterGuard.actions.ActionHandler;
 import me.ppgome.critterGuard.database.MountAccess;
+import me.ppgome.critterGuard.database.SavedAnimal;
 import me.ppgome.critterGuard.database.SavedMount;
 import me.ppgome.critterGuard.database.SavedPet;
+import org.bukkit.Location;
 import org.bukkit.OfflinePlayer;
 import org.bukkit.entity.Entity;
 import org.bukkit.scheduler.BukkitScheduler;
 import org.bukkit.scheduler.BukkitTask;
 
 import java.util.*;
+import java.util.function.Consumer;
 
 /**
  * This class handles the storage of critters in-memory and provides the necessary
@@ -29,10 +32,10 @@ public class CritterCache {
     private HashMap<UUID, SavedMount> savedMountsCache = new HashMap<>();
 
     /**
-     * An in-memory cache of SavedPet UUIDs.
-     * This cache is used to store all SavedPet UUIDs for quick checking.
+     * An in-memory cache of SavedPet objects.
+     * This cache is used to store all SavedPets for quick retrieval.
      */
-    private Set<UUID> savedPetsCache = new HashSet<>();
+    private HashMap<UUID, SavedPet> savedPetsCache = new HashMap<>();
 
     /**
      * An in-memory cache of PlayerMeta objects.
@@ -54,6 +57,23 @@ public class CritterCache {
      */
     private HashMap<UUID, BukkitTask> clickTaskCache = new HashMap<>();
 
+    /**
+     * An index of saved mounts and pets by the chunk they were last seen in.
+     * Kept in step with the saved mount and pet caches and with their last known locations.
+     */
+    private final CritterChunkIndex chunkIndex = new CritterChunkIndex();
+
+    /**
+     * True once the critter data has been loaded from the database. False while it's still loading.
+     */
+    private boolean loaded;
+
+    /**
+     * Tasks waiting for the critter data to finish loading.
+     * These are run in the order they were added as soon as the data is swapped in.
+     */
+    private List<Runnable> loadTasks = new ArrayList<>();
+
     //------------------------------------------------------------------------------------------------------------------
 
     /**
@@ -66,6 +86,66 @@ public class CritterCache {
 
     //------------------------------------------------------------------------------------------------------------------
 
+    // -------- Loading
+
+    /**
+     * Replaces the critter data in the cache with data loaded from the database and marks the cache as loaded.
+     * Any PlayerMetas or critters that were added while the data was loading are carried over.
+     *
+     * @param savedMounts The loaded saved mounts, keyed by their UUID
+     * @param savedPets The loaded saved pets, keyed by their UUID
+     * @param playerMetas The loaded PlayerMetas, keyed by the player's UUID
+     */
+    public void loadAll(HashMap<UUID, SavedMount> savedMounts, HashMap<UUID, SavedPet> savedPets,
+                        HashMap<UUID, PlayerMeta> playerMetas) {
+        for(PlayerMeta playerMeta : playerMetaCache.values()) {
+            PlayerMeta loadedMeta = playerMetas.putIfAbsent(playerMeta.getUuid(), playerMeta);
+            if(loadedMeta == null) continue;
+            playerMeta.forEachOwned(loadedMeta::addOwnedAnimal);
+            for(MountAccess mountAccess : playerMeta.getAccessList()) {
+                loadedMeta.addMountAccess(mountAccess);
+            }
+        }
+        savedMountsCache.forEach(savedMounts::putIfAbsent);
+        savedPetsCache.forEach(savedPets::putIfAbsent);
+
+        savedMountsCache = savedMounts;
+        savedPetsCache = savedPets;
+        playerMetaCache = playerMetas;
+        chunkIndex.clear();
+        savedMountsCache.values().forEach(chunkIndex::add);
+        savedPetsCache.values().forEach(chunkIndex::add);
+        loaded = true;
+
+        List<Runnable> tasks = loadTasks;
+        loadTasks = null;
+        for(Runnable task : tasks) {
+            task.run();
+        }
+    }
+
+    /**
+     * Checks if the critter data has finished loading from the database.
+     *
+     * @return True if it has, false if it's still loading
+     */
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    /**
+     * Runs a task once the critter data has loaded. If it already has, the task is run immediately.
+     *
+     * @param task The task to run
+     */
+    public void runWhenLoaded(Runnable task) {
+        if(loaded) {
+            task.run();
+        } else {
+            loadTasks.add(task);
+        }
+    }
+
     // -------- Saved Mount Cache
 
     /**
@@ -75,6 +155,7 @@ public class CritterCache {
      */
     public void addSavedMount(SavedMount savedMount) {
         savedMountsCache.put(savedMount.getEntityUuid(), savedMount);
+        chunkIndex.add(savedMount);
     }
 
     /**
@@ -94,17 +175,29 @@ public class CritterCache {
      */
     public void removeSavedMount(SavedMount savedMount) {
         savedMountsCache.remove(savedMount.getEntityUuid());
+        chunkIndex.remove(savedMount);
     }
 
     // -------- Saved Pet Cache
 
     /**
-     * Adds a new saved pet's UUID to the cache.
+     * Adds a new saved pet to the cache.
      *
-     * @param savedPet The pet's UUID being added to the cache
+     * @param savedPet The pet being added to the cache
      */
     public void addSavedPet(SavedPet savedPet) {
-        savedPetsCache.add(savedPet.getEntityUuid());
+        savedPetsCache.put(savedPet.getEntityUuid(), savedPet);
+        chunkIndex.add(savedPet);
+    }
+
+    /**
+     * Fetches the saved pet whom the specified UUID belongs to.
+     *
+     * @param petUuid The UUID of the pet
+     * @return The pet
+     */
+    public SavedPet getSavedPet(UUID petUuid) {
+        return savedPetsCache.get(petUuid);
     }
 
     /**
@@ -114,16 +207,54 @@ public class CritterCache {
      * @return true if it does, false if not
      */
     public boolean isSavedPet(UUID uuid) {
-        return savedPetsCache.contains(uuid);
+        return savedPetsCache.containsKey(uuid);
     }
 
     /**
-     * Removes a saved pet's UUID from the cache.
+     * Removes a saved pet from the cache.
      *
-     * @param savedPet The saved pet's UUID to be removed
+     * @param savedPet The saved pet to be removed
      */
     public void removeSavedPet(SavedPet savedPet) {
         savedPetsCache.remove(savedPet.getEntityUuid());
+        chunkIndex.remove(savedPet);
+    }
+
+    // -------- Chunk Index
+
+    /**
+     * Moves a saved mount or pet to a new last known location, keeping the chunk index in step.
+     *
+     * @param savedAnimal The critter that moved
+     * @param location Where the critter is now
+     */
+    public void updateLastLocation(SavedAnimal savedAnimal, Location location) {
+        chunkIndex.remove(savedAnimal);
+        savedAnimal.setLastLocation(location);
+        chunkIndex.add(savedAnimal);
+    }
+
+    /**
+     * Fetches the saved mounts and pets last seen in a chunk.
+     *
+     * @param world The name of the world
+     * @param chunkX The chunk's X coordinate
+     * @param chunkZ The chunk's Z coordinate
+     * @return The critters in the chunk, which may be empty
+     */
+    public Collection<SavedAnimal> getCrittersInChunk(String world, int chunkX, int chunkZ) {
+        return chunkIndex.getInChunk(world, chunkX, chunkZ);
+    }
+
+    /**
+     * Runs an action for every saved mount and pet last seen within a horizontal radius of a location.
+     *
+     * @param center The centre of the search
+     * @param radius The radius in blocks
+     * @param action The action to run for each critter found
+     */
+    public void forEachCritterInRadius(Location center, double radius, Consumer<SavedAnimal> action) {
+        chunkIndex.forEachInRadius(center.getWorld().getName(), center.x(), center.z(), radius, action);
     }
 
     // -------- Player Meta Cache
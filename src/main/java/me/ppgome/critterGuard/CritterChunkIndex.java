@@ -0,0 +1,184 @@
+package me.ppgome.critterGuard;
+
+import me.ppgome.critterGuard.database.SavedAnimal;
+
+import java.util.*;
+import java.util.function.Consumer;
+
+/**
+ * An index of saved critters by the chunk of their last known location.
+ *
+ * Critters are grouped by world name and then by packed chunk key, so everything in a chunk is found with two map
+ * lookups and a radius search only visits the chunks that overlap it. The index follows the critters' stored
+ * last known location, so it has to be told whenever that location changes.
+ */
+public class CritterChunkIndex {
+
+    /**
+     * The indexed critters, keyed by world name, then chunk key, then entity UUID.
+     */
+    private final HashMap<String, HashMap<Long, HashMap<UUID, SavedAnimal>>> worlds = new HashMap<>();
+
+    /**
+     * The number of indexed critters.
+     */
+    private int size;
+
+    //------------------------------------------------------------------------------------------------------------------
+
+    /**
+     * Adds a critter at its last known location. Critters that have never been seen are not indexed.
+     *
+     * @param savedAnimal The critter being added
+     */
+    public void add(SavedAnimal savedAnimal) {
+        String world = savedAnimal.getLastSeenWorld();
+        if(world == null) return;
+        HashMap<UUID, SavedAnimal> chunk = worlds.computeIfAbsent(world, w -> new HashMap<>())
+                .computeIfAbsent(savedAnimal.getLastSeenChunkKey(), k -> new HashMap<>());
+        if(chunk.put(savedAnimal.getEntityUuid(), savedAnimal) == null) size++;
+    }
+
+    /**
+     * Removes a critter from the chunk of its last known location.
+     * This has to be called before the critter's last known location is changed.
+     *
+     * @param savedAnimal The critter being removed
+     */
+    public void remove(SavedAnimal savedAnimal) {
+        String world = savedAnimal.getLastSeenWorld();
+        if(world == null) return;
+        HashMap<Long, HashMap<UUID, SavedAnimal>> chunks = worlds.get(world);
+        if(chunks == null) return;
+        long chunkKey = savedAnimal.getLastSeenChunkKey();
+        HashMap<UUID, SavedAnimal> chunk = chunks.get(chunkKey);
+        if(chunk == null || chunk.remove(savedAnimal.getEntityUuid()) == null) return;
+        size--;
+        if(chunk.isEmpty()) {
+            chunks.remove(chunkKey);
+            if(chunks.isEmpty()) worlds.remove(world);
+        }
+    }
+
+    /**
+     * Removes every critter from the index.
+     */
+    public void clear() {
+        worlds.clear();
+        size = 0;
+    }
+
+    /**
+     * Returns the number of indexed critters.
+     *
+     * @return The number of critters
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the critters last seen in a chunk.
+     *
+     * @param world The name of the world
+     * @param chunkX The chunk's X coordinate
+     * @param chunkZ The chunk's Z coordinate
+     * @return The critters in the chunk, which may be empty. Don't modify it.
+     */
+    public Collection<SavedAnimal> getInChunk(String world, int chunkX, int chunkZ) {
+        HashMap<Long, HashMap<UUID, SavedAnimal>> chunks = worlds.get(world);
+        if(chunks == null) return Collections.emptyList();
+        HashMap<UUID, SavedAnimal> chunk = chunks.get(chunkKey(chunkX, chunkZ));
+        return chunk == null ? Collections.emptyList() : Collections.unmodifiableCollection(chunk.values());
+    }
+
+    /**
+     * Runs an action for every critter last seen within a horizontal radius of a point.
+     *
+     * @param world The name of the world
+     * @param x The X coordinate of the centre
+     * @param z The Z coordinate of the centre
+     * @param radius The radius in blocks
+     * @param action The action to run for each critter found
+     */
+    public void forEachInRadius(String world, double x, double z, double radius, Consumer<SavedAnimal> action) {
+        HashMap<Long, HashMap<UUID, SavedAnimal>> chunks = worlds.get(world);
+        if(chunks == null) return;
+        double radiusSquared = radius * radius;
+        int minChunkX = (int) Math.floor(x - radius) >> 4;
+        int maxChunkX = (int) Math.floor(x + radius) >> 4;
+        int minChunkZ = (int) Math.floor(z - radius) >> 4;
+        int maxChunkZ = (int) Math.floor(z + radius) >> 4;
+
+        // Large radii cover more chunks than are occupied, so walk the occupied chunks instead
+        long coveredChunks = (long) (maxChunkX - minChunkX + 1) * (maxChunkZ - minChunkZ + 1);
+        if(coveredChunks > chunks.size()) {
+            for(Map.Entry<Long, HashMap<UUID, SavedAnimal>> entry : chunks.entrySet()) {
+                int chunkX = chunkX(entry.getKey());
+                int chunkZ = chunkZ(entry.getKey());
+                if(chunkX < minChunkX || chunkX > maxChunkX || chunkZ < minChunkZ || chunkZ > maxChunkZ) continue;
+                acceptInRadius(entry.getValue(), x, z, radiusSquared, action);
+            }
+            return;
+        }
+
+        for(int chunkX = minChunkX; chunkX <= maxChunkX; chunkX++) {
+            for(int chunkZ = minChunkZ; chunkZ <= maxChunkZ; chunkZ++) {
+                HashMap<UUID, SavedAnimal> chunk = chunks.get(chunkKey(chunkX, chunkZ));
+                if(chunk != null) acceptInRadius(chunk, x, z, radiusSquared, action);
+            }
+        }
+    }
+
+    /**
+     * Runs an action for every critter in a chunk that's within a radius of a point.
+     *
+     * @param chunk The critters in the chunk
+     * @param x The X coordinate of the centre
+     * @param z The Z coordinate of the centre
+     * @param radiusSquared The radius in blocks, squared
+     * @param action The action to run for each critter found
+     */
+    private static void acceptInRadius(HashMap<UUID, SavedAnimal> chunk, double x, double z, double radiusSquared,
+                                       Consumer<SavedAnimal> action) {
+        for(SavedAnimal savedAnimal : chunk.values()) {
+            double dx = savedAnimal.getLastSeenX() - x;
+            double dz = savedAnimal.getLastSeenZ() - z;
+            if(dx * dx + dz * dz <= radiusSquared) action.accept(savedAnimal);
+        }
+    }
+
+    //------------------------------------------------------------------------------------------------------------------
+
+    /**
+     * Packs chunk coordinates into one long, the same way Paper's Chunk#getChunkKey does.
+     *
+     * @param chunkX The chunk's X coordinate
+     * @param chunkZ The chunk's Z coordinate
+     * @return The chunk key
+     */
+    public static long chunkKey(int chunkX, int chunkZ) {
+        return ((long) chunkZ << 32) | (chunkX & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Unpacks the X coordinate from a chunk key.
+     *
+     * @param chunkKey The chunk key
+     * @return The chunk's X coordinate
+     */
+    private static int chunkX(long chunkKey) {
+        return (int) chunkKey;
+    }
+
+    /**
+     * Unpacks the Z coordinate from a chunk key.
+     *
+     * @param chunkKey The chunk key
+     * @return The chunk's Z coordinate
+     */
+    private static int chunkZ(long chunkKey) {
+        return (int) (chunkKey >> 32);
+    }
+
+}
@@ -2,13 +2,13 @@ package me.ppgome.critterGuard;
 
 import com.j256.ormlite.dao.Dao;
 import com.j256.ormlite.dao.DaoManager;
-import com.j256.ormlite.jdbc.JdbcConnectionSource;
 import com.j256.ormlite.support.ConnectionSource;
 import com.j256.ormlite.table.TableUtils;
 import me.ppgome.critterGuard.commands.CritterCommand;
 import me.ppgome.critterGuard.database.*;
 import me.ppgome.critterGuard.disguisesaddles.DisguiseSaddleHandler;
 import me.ppgome.critterGuard.disguisesaddles.LibsDisguiseProvider;
+import me.ppgome.critterGuard.metrics.EventMetrics;
 import me.ppgome.critterGuard.utility.CritterAccessHandler;
 import me.ppgome.critterGuard.utility.CritterTamingHandler;
 import net.kyori.adventure.text.Component;
@@ -19,9 +19,7 @@ import org.bukkit.entity.Player;
 import org.bukkit.plugin.java.JavaPlugin;
 
 import java.sql.SQLException;
-import java.util.List;
 import java.util.UUID;
-import java.util.concurrent.CompletableFuture;
 
 /**
  * CritterGuard is a plugin for managing mount access permissions and pet protections in Minecraft.
@@ -37,13 +35,13 @@ public final class CritterGuard extends JavaPlugin {
     CGConfig config;
 
     /**
-     * The URL for the SQLite database used by the CritterGuard plugin.
+     * The database chosen in the config and its pool of connections.
      * This database stores information about mount access permissions and saved mounts.
      */
-    private static final String DATABASE_URL = "jdbc:sqlite:plugins/CritterGuard/CritterGuard.db";
+    private StorageBackend storageBackend;
 
     /**
-     * The connection source for the SQLite database.
+     * The connection source for the database.
      * This is used to establish connections to the database for performing CRUD operations.
      */
     private ConnectionSource connectionSource;
@@ -58,13 +56,25 @@ public final class CritterGuard extends JavaPlugin {
      * The Data Access Object (DAO) for managing SavedMount records in the database.
      * This DAO provides methods to perform CRUD operations on SavedMount records.
      */
-    private Dao<SavedMount, String> savedMountDao;
+    private Dao<SavedMount, UUID> savedMountDao;
 
     /**
      * The Data Access Object (DAO) for managing SavedPet records in the database.
      * This DAO provides methods to perform CRUD operations on SavedPet records.
      */
-    private Dao<SavedPet, String> savedPetDao;
+    private Dao<SavedPet, UUID> savedPetDao;
+
+    /**
+     * The plugin-owned threads that all database reads and writes run on.
+     * Writes are serialized on a single thread; reads use a separate bounded pool.
+     */
+    private DatabaseExecutor databaseExecutor;
+
+    /**
+     * Queue that batches writes from the table handlers into transactions.
+     * Saves and deletes are coalesced per record and flushed on a size or time threshold.
+     */
+    private WriteBehindQueue writeBehindQueue;
 
     /**
      * Table handler for MountAccess records.
@@ -84,12 +94,23 @@ public final class CritterGuard extends JavaPlugin {
      */
     private SavedPetTable savedPetTable;
 
+    /**
+     * Registry of event handler latency histograms.
+     * Handlers only record into it while event metrics are enabled in the config.
+     */
+    private EventMetrics eventMetrics;
+
     /**
      * In-memory cache for storing critter and player metadata.
      * This cache is used to quickly access critter and player information without querying the database.
      */
     private CritterCache critterCache;
 
+    /**
+     * Cache of player names and UUIDs, used so name lookups never block the main thread.
+     */
+    private PlayerNameCache playerNameCache;
+
     /**
      * Command handler for the /critter command.
      * This object handles the execution of the critter command and its subcommands.
@@ -122,9 +143,16 @@ public final class CritterGuard extends JavaPlugin {
     public void onEnable() {
         // Plugin startup logic
         config = new CGConfig(this);
-        setupDatabase();
-        loadDatabaseData();
+        if(!setupDatabase()) {
+            // Running against missing or half-migrated tables would leave critters that weren't loaded unprotected
+            logError("Disabling CritterGuard, as its saved critters can't be loaded safely. Fix the database error "
+                    + "above and restart the server.");
+            getServer().getPluginManager().disablePlugin(this);
+            return;
+        }
         critterCache = new CritterCache(this);
+        playerNameCache = new PlayerNameCache(this);
+        eventMetrics = new EventMetrics(this);
         critterTamingHandler = new CritterTamingHandler(this);
         critterAccessHandler = new CritterAccessHandler(this);
 
@@ -138,118 +166,69 @@ public final class CritterGuard extends JavaPlugin {
         critterCommand = new CritterCommand(this);
         this.getCommand("critter").setExecutor(critterCommand);
 
+        // Critters are treated as protected until this finishes and swaps the data into the cache
+        new CritterLoader(this).load();
     }
 
     @Override
     public void onDisable() {
-        for(Player player : Bukkit.getOnlinePlayers()) {
-            processPlayerLogout(player);
+        if(critterCache != null) {
+            for(Player player : Bukkit.getOnlinePlayers()) {
+                processPlayerLogout(player);
+            }
         }
+        if(writeBehindQueue != null) writeBehindQueue.shutdown();
+        if(databaseExecutor != null) databaseExecutor.shutdown();
+        if(storageBackend != null) storageBackend.close();
     }
 
     //------------------------------------------------------------------------------------------------------------------
 
     /**
-     * Sets up the SQLite database for the MountGuard plugin.
+     * Sets up the database chosen in the config for the MountGuard plugin.
      * This method initializes the connection source, creates DAOs for MountAccess and SavedMount,
      * and creates the necessary tables if they do not already exist.
+     *
+     * @return True if the database is ready to use, false if it couldn't be set up or migrated
      */
-    public void setupDatabase() {
+    public boolean setupDatabase() {
         try {
-            // Initialize the connection source
-            connectionSource = new JdbcConnectionSource(DATABASE_URL);
+            databaseExecutor = new DatabaseExecutor(this);
+
+            // Initialize the connection pool for the configured database
+            storageBackend = new StorageBackend(this);
+            connectionSource = storageBackend.getConnectionSource();
 
             // Create DAOs for MountAccess and SavedMount
             mountAccessDao = DaoManager.createDao(connectionSource, MountAccess.class);
             savedMountDao = DaoManager.createDao(connectionSource, SavedMount.class);
             savedPetDao = DaoManager.createDao(connectionSource, SavedPet.class);
 
+            // Writes from every table handler are batched through a single queue
+            writeBehindQueue = new WriteBehindQueue(this);
+
             // Initialize table handlers for MountAccess and SavedMount
             mountAccessTable = new MountAccessTable(this);
             savedMountTable = new SavedMountTable(this);
             savedPetTable = new SavedPetTable(this);
 
+            // Load the codes repeated strings such as entity types and worlds are stored as
+            ValueDictionary.install(connectionSource);
+
             // Create tables if they do not exist
             TableUtils.createTableIfNotExists(connectionSource, MountAccess.class);
             TableUtils.createTableIfNotExists(connectionSource, SavedMount.class);
             TableUtils.createTableIfNotExists(connectionSource, SavedPet.class);
 
+            // Bring existing tables up to date, such as adding indexes they were created without
+            return new SchemaMigrator(this, connectionSource).migrate();
+
         } catch (SQLException e) {
             logError("Failed to set up database" + e.getMessage());
+            return false;
         }
     }
 
-    /**
-     * Loads existing data from the database into the in-memory cache.
-     * This method retrieves all SavedMount and MountAccess records from the database
-     * and populates the CritterCache with this data for quick access during runtime.
-     */
-    public void loadDatabaseData() {
-
-        CompletableFuture<List<SavedMount>> savedMountsFuture = savedMountTable.getAllSavedMounts();
-        CompletableFuture<List<MountAccess>> mountAccessFuture = mountAccessTable.getAllMountAccess();
-        CompletableFuture<List<SavedPet>> savedPetsFuture = savedPetTable.getAllSavedPets();
-
-        CompletableFuture.allOf(savedMountsFuture, mountAccessFuture, savedPetsFuture).thenRun(() -> {
-
-            PlayerMeta playerMeta;
-
-            try {
-                List<SavedMount> savedMounts = savedMountsFuture.get();
-
-                // Initialize the in-memory cache for saved mounts
-                if(savedMounts != null) {
-                    for(SavedMount savedMount : savedMounts) {
-                        critterCache.addSavedMount(savedMount);
-                        playerMeta = registerNewPlayer(savedMount.getEntityOwnerUuid());
-                        savedMount.setIndex(playerMeta.getOwnedList().size() + 1);
-                        playerMeta.addOwnedAnimal(savedMount);
-                    }
-                    logInfo("Loaded " + savedMounts.size() + " saved mounts from the database.");
-                }
-            } catch(Exception e) {
-                logError("Failed to load saved mount data: " + e.getMessage());
-            }
-
-            try {
-                List<MountAccess> mountAccesses = mountAccessFuture.get();
-
-                // Initialize the in-memory cache for mount accesses
-                if(mountAccesses != null) {
-                    for(MountAccess mountAccess : mountAccesses) {
-                        registerNewPlayer(UUID.fromString(mountAccess.getPlayerUuid())).addMountAccess(mountAccess);
-                        SavedMount savedMount = critterCache.getSavedMount(UUID.fromString(mountAccess.getMountUuid()));
-                        if(savedMount != null) {
-                            savedMount.addAccess(UUID.fromString(mountAccess.getPlayerUuid()), mountAccess);
-                        } else {
-                            mountAccessTable.delete(mountAccess);
-                        }
-                    }
-                    logInfo("Loaded " + mountAccesses.size() + " saved mount accesses from the database.");
-                }
-            } catch(Exception e) {
-                logError("Failed to load mount access data: " + e.getMessage());
-            }
-
-            try {
-                List<SavedPet> savedPets = savedPetsFuture.get();
-
-                // Initialize the in-memory cache for saved pets
-                if(savedPets != null) {
-                    for(SavedPet savedPet : savedPets) {
-                        playerMeta = registerNewPlayer(savedPet.getEntityOwnerUuid());
-                        savedPet.setIndex(playerMeta.getOwnedList().size() + 1);
-                        playerMeta.addOwnedAnimal(savedPet);
-                        critterCache.addSavedPet(savedPet);
-                    }
-                    logInfo("Loaded " + savedPets.size() + " saved pets from the database.");
-                }
-            } catch(Exception e) {
-                logError("Failed to load saved pet data: " + e.getMessage());
-            }
-        });
-    }
-
     /**
      * Registers a new player by adding their UUID to the in-memory cache.
      * If the player already exists in the cache, this method does nothing.
@@ -331,7 +310,7 @@ public final class CritterGuard extends JavaPlugin {
      *
      * @return the DAO for SavedMount records
      */
-    public Dao<SavedMount, String> getSavedMountDao() {
+    public Dao<SavedMount, UUID> getSavedMountDao() {
         return savedMountDao;
     }
 
@@ -340,10 +319,28 @@ public final class CritterGuard extends JavaPlugin {
      *
      * @return the DAO for SavedPet records
      */
-    public Dao<SavedPet, String> getSavedPetDao() {
+    public Dao<SavedPet, UUID> getSavedPetDao() {
         return savedPetDao;
     }
 
+    /**
+     * Returns the executor that database reads and writes run on.
+     *
+     * @return the DatabaseExecutor instance
+     */
+    public DatabaseExecutor getDatabaseExecutor() {
+        return databaseExecutor;
+    }
+
+    /**
+     * Returns the queue that batches writes to the database.
+     *
+     * @return the WriteBehindQueue instance
+     */
+    public WriteBehindQueue getWriteBehindQueue() {
+        return writeBehindQueue;
+    }
+
     /**
      * Returns the MountAccessTable instance
      * @return the MountAccessTable instance
@@ -368,6 +365,14 @@ public final class CritterGuard extends JavaPlugin {
         return savedPetTable;
     }
 
+    /**
+     * Returns the EventMetrics instance.
+     * @return the EventMetrics instance
+     */
+    public EventMetrics getEventMetrics() {
+        return eventMetrics;
+    }
+
     /**
      * Returns the CritterCache instance.
      * @return the CritterCache instance
@@ -376,6 +381,14 @@ public final class CritterGuard extends JavaPlugin {
         return critterCache;
     }
 
+    /**
+     * Returns the PlayerNameCache instance.
+     * @return the PlayerNameCache instance
+     */
+    public PlayerNameCache getPlayerNameCache() {
+        return playerNameCache;
+    }
+
     /**
      * Returns the CritterTamingHandler instance.
      * @return the CritterTamingHandler instance.
@@ -0,0 +1,264 @@
+package me.ppgome.critterGuard;
+
+import me.ppgome.critterGuard.database.MountAccess;
+import me.ppgome.critterGuard.database.SavedAnimal;
+import me.ppgome.critterGuard.database.SavedMount;
+import me.ppgome.critterGuard.database.SavedPet;
+import org.bukkit.Bukkit;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Loads the saved critters and mount accesses from the database when the plugin starts.
+ *
+ * Rows are streamed off the main thread into a fresh set of maps, one table at a time, and the finished maps are
+ * swapped into the CritterCache on the main thread in a single step. Until that happens the cache reports that it
+ * isn't loaded, and any critter the plugin could be tracking is treated as protected.
+ */
+public class CritterLoader {
+
+    /**
+     * The instance of the plugin.
+     */
+    private final CritterGuard plugin;
+    /**
+     * The saved mounts read from the database, keyed by their UUID.
+     */
+    private final HashMap<UUID, SavedMount> savedMounts = new HashMap<>();
+    /**
+     * The saved pets read from the database, keyed by their UUID.
+     */
+    private final HashMap<UUID, SavedPet> savedPets = new HashMap<>();
+    /**
+     * The PlayerMetas built from the loaded rows, keyed by the player's UUID.
+     */
+    private final HashMap<UUID, PlayerMeta> playerMetas = new HashMap<>();
+    /**
+     * Mount accesses whose mount no longer exists. These are deleted once every table has loaded.
+     */
+    private final List<MountAccess> orphanedAccess = new ArrayList<>();
+    /**
+     * Whether any table failed to load. Read on the main thread once loading has finished.
+     */
+    private boolean failed;
+
+    //------------------------------------------------------------------------------------------------------------------
+
+    /**
+     * Initializes the loader.
+     *
+     * @param plugin The instance of the plugin
+     */
+    public CritterLoader(CritterGuard plugin) {
+        this.plugin = plugin;
+    }
+
+    //------------------------------------------------------------------------------------------------------------------
+
+    /**
+     * Starts loading the database on a database read thread.
+     * The CritterCache is populated on the main thread once every table has been read.
+     */
+    public void load() {
+        long start = System.nanoTime();
+        CompletableFuture.runAsync(() -> {
+            LoadMemoryMetric memoryMetric = LoadMemoryMetric.start();
+            loadSavedMounts();
+            loadMountAccess();
+            loadSavedPets();
+            plugin.logInfo(memoryMetric.finish());
+        }, plugin.getDatabaseExecutor().getReadExecutor()).whenComplete((ignored, throwable) -> {
+            if(throwable != null) {
+                failed = true;
+                plugin.logError("Failed to load critter data:\n" + throwable.getMessage());
+            }
+            Bukkit.getScheduler().runTask(plugin, () -> finish(start));
+        });
+    }
+
+    /**
+     * Swaps the loaded data into the cache and cleans up any orphaned mount accesses.
+     * If any table failed to load, nothing is swapped in and the plugin is disabled instead, as publishing part of
+     * the data would lift protection from every critter that wasn't read. Must be called on the main thread.
+     *
+     * @param start When loading started, from {@link System#nanoTime()}
+     */
+    private void finish(long start) {
+        if(failed) {
+            plugin.logError("Disabling CritterGuard, as its saved critters didn't load completely. Fix the database "
+                    + "error above and restart the server.");
+            plugin.getServer().getPluginManager().disablePlugin(plugin);
+            return;
+        }
+        plugin.getCritterCache().loadAll(savedMounts, savedPets, playerMetas);
+        plugin.getPlayerNameCache().warm(playerMetas.keySet());
+        for(MountAccess mountAccess : orphanedAccess) {
+            plugin.getMountAccessTable().delete(mountAccess);
+        }
+        plugin.logInfo("Finished loading critter data in " + elapsedMillis(start) + "ms.");
+    }
+
+    /**
+     * Streams the saved mount table into the loaded maps.
+     */
+    private void loadSavedMounts() {
+        long start = System.nanoTime();
+        try {
+            int rows = plugin.getSavedMountTable().forEachSavedMount(savedMount -> {
+                savedMounts.put(savedMount.getEntityUuid(), savedMount);
+                addOwnedAnimal(savedMount);
+            });
+            plugin.logInfo("Loaded " + rows + " saved mounts from the database in " + elapsedMillis(start) + "ms.");
+        } catch(Exception e) {
+            failed = true;
+            plugin.logError("Failed to load saved mount data: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Streams the mount access table into the loaded maps.
+     * Must run after the saved mounts have been loaded so each access can be attached to its mount.
+     */
+    private void loadMountAccess() {
+        long start = System.nanoTime();
+        try {
+            int rows = plugin.getMountAccessTable().forEachMountAccess(mountAccess -> {
+                SavedMount savedMount = savedMounts.get(mountAccess.getMountUuid());
+                if(savedMount != null) {
+                    UUID playerUuid = mountAccess.getPlayerUuid();
+                    getPlayerMeta(playerUuid).addMountAccess(mountAccess);
+                    savedMount.addAccess(playerUuid, mountAccess);
+                } else {
+                    orphanedAccess.add(mountAccess);
+                }
+            });
+            plugin.logInfo("Loaded " + rows + " saved mount accesses from the database in "
+                    + elapsedMillis(start) + "ms.");
+        } catch(Exception e) {
+            failed = true;
+            plugin.logError("Failed to load mount access data: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Streams the saved pet table into the loaded maps.
+     */
+    private void loadSavedPets() {
+        long start = System.nanoTime();
+        try {
+            int rows = plugin.getSavedPetTable().forEachSavedPet(savedPet -> {
+                savedPets.put(savedPet.getEntityUuid(), savedPet);
+                addOwnedAnimal(savedPet);
+            });
+            plugin.logInfo("Loaded " + rows + " saved pets from the database in " + elapsedMillis(start) + "ms.");
+        } catch(Exception e) {
+            failed = true;
+            plugin.logError("Failed to load saved pet data: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Adds a loaded critter to its owner's PlayerMeta.
+     *
+     * @param savedAnimal The critter being added
+     */
+    private void addOwnedAnimal(SavedAnimal savedAnimal) {
+        PlayerMeta playerMeta = getPlayerMeta(savedAnimal.getEntityOwnerUuid());
+        playerMeta.addOwnedAnimal(savedAnimal);
+    }
+
+    /**
+     * Fetches the loaded PlayerMeta of a player, creating it if it doesn't exist yet.
+     *
+     * @param playerUuid The UUID of the player
+     * @return The player's PlayerMeta
+     */
+    private PlayerMeta getPlayerMeta(UUID playerUuid) {
+        return playerMetas.computeIfAbsent(playerUuid, uuid -> new PlayerMeta(uuid, plugin));
+    }
+
+    /**
+     * Returns the number of milliseconds since a point in time.
+     *
+     * @param start The point in time, from {@link System#nanoTime()}
+     * @return The elapsed milliseconds
+     */
+    private static long elapsedMillis(long start) {
+        return (System.nanoTime() - start) / 1_000_000L;
+    }
+
+    //------------------------------------------------------------------------------------------------------------------
+
+    /**
+     * Measures the memory used while loading: the bytes allocated by the loading thread and the peak heap usage.
+     * Loading runs on a single thread, so its allocations cover everything the load itself created.
+     *
+     * @param threadId The ID of the loading thread
+     * @param startAllocated The bytes the thread had allocated when loading started, or -1 if not supported
+     */
+    private record LoadMemoryMetric(long threadId, long startAllocated) {
+
+        /**
+         * Starts measuring on the current thread and resets the peak usage of the heap memory pools.
+         *
+         * @return The started metric
+         */
+        static LoadMemoryMetric start() {
+            for(MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+                if(pool.getType() == MemoryType.HEAP) pool.resetPeakUsage();
+            }
+            long threadId = Thread.currentThread().threadId();
+            return new LoadMemoryMetric(threadId, allocatedBytes(threadId));
+        }
+
+        /**
+         * Stops measuring and describes the result.
+         *
+         * @return The message to log
+         */
+        String finish() {
+            long peakHeap = 0;
+            for(MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+                if(pool.getType() == MemoryType.HEAP) peakHeap += pool.getPeakUsage().getUsed();
+            }
+            long endAllocated = allocatedBytes(threadId);
+            String allocated = startAllocated < 0 || endAllocated < 0 ? "unknown"
+                    : toMegabytes(endAllocated - startAllocated) + "MB";
+            return "Critter data load allocated " + allocated + ", peak heap usage was " + toMegabytes(peakHeap)
+                    + "MB.";
+        }
+
+        /**
+         * Returns the total bytes a thread has allocated, if the JVM supports measuring it.
+         *
+         * @param threadId The ID of the thread
+         * @return The allocated bytes, or -1 if not supported
+         */
+        private static long allocatedBytes(long threadId) {
+            if(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean threadBean
+                    && threadBean.isThreadAllocatedMemorySupported() && threadBean.isThreadAllocatedMemoryEnabled()) {
+                return threadBean.getThreadAllocatedBytes(threadId);
+            }
+            return -1;
+        }
+
+        /**
+         * Converts bytes to whole megabytes.
+         *
+         * @param bytes The bytes
+         * @return The megabytes
+         */
+        private static long toMegabytes(long bytes) {
+            return bytes / (1024L * 1024L);
+        }
+
+    }
+
+}
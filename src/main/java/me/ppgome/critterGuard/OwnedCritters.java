@@ -0,0 +1,507 @@
+package me.ppgome.critterGuard;
+
+import me.ppgome.critterGuard.database.SavedAnimal;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * The critters a player owns, in the order they were tamed, partitioned by entity type.
+ *
+ * Every critter keeps the slot it was added in, and each partition tracks which of its slots are still occupied in a
+ * Fenwick tree. That makes a critter's index in "/cg list", finding the critter at an index and removing a critter
+ * all O(log n), and lets a page of one entity type be read without filtering the rest of the player's critters.
+ * Removing a critter leaves an empty slot behind, so the slots are compacted once they're mostly empty.
+ *
+ * The critters are also kept sorted by lowercase name and by UUID string, so a name or UUID prefix is resolved, and
+ * completed, with a binary search instead of building the strings of every critter the player owns.
+ */
+public class OwnedCritters {
+
+    /**
+     * The number of empty slots a player can have before it's worth compacting them.
+     */
+    private static final int MIN_COMPACT_GAPS = 32;
+    /**
+     * Separates a critter's lowercase name from its tiebreaker in the name index. Sorts before any typed character.
+     */
+    private static final char NAME_SEPARATOR = '\u0000';
+
+    /**
+     * Every owned critter, in the order they were added.
+     */
+    private Partition all = new Partition();
+    /**
+     * The owned critters of each entity type, keyed by the lowercase entity type.
+     */
+    private HashMap<String, Partition> byType = new HashMap<>();
+    /**
+     * Where each owned critter is stored, keyed by the critter's UUID.
+     */
+    private final HashMap<UUID, Entry> entries = new HashMap<>();
+    /**
+     * The owned critters with a name, keyed by their lowercase name followed by the order they were added in.
+     */
+    private final TreeMap<String, Entry> byName = new TreeMap<>();
+    /**
+     * The owned critters, keyed by their UUID string.
+     */
+    private final TreeMap<String, Entry> byUuid = new TreeMap<>();
+    /**
+     * The number of critters that have been added, used to order critters that share a name.
+     */
+    private long addedCount;
+
+    //------------------------------------------------------------------------------------------------------------------
+
+    /**
+     * Adds a critter after the ones already owned. Does nothing if the critter is already owned.
+     *
+     * @param savedAnimal The critter being added
+     */
+    public void add(SavedAnimal savedAnimal) {
+        UUID entityUuid = savedAnimal.getEntityUuid();
+        if(entries.containsKey(entityUuid)) return;
+        Entry entry = new Entry(savedAnimal, typeKey(savedAnimal.getEntityType()), addedCount++,
+                entityUuid.toString());
+        place(entry);
+        entries.put(entityUuid, entry);
+        byUuid.put(entry.uuidKey, entry);
+        indexName(entry);
+    }
+
+    /**
+     * Removes a critter. The critters after it move up one index.
+     *
+     * @param savedAnimal The critter being removed
+     * @return True if the critter was owned, false if not
+     */
+    public boolean remove(SavedAnimal savedAnimal) {
+        Entry entry = entries.remove(savedAnimal.getEntityUuid());
+        if(entry == null) return false;
+
+        byUuid.remove(entry.uuidKey);
+        if(entry.nameKey != null) byName.remove(entry.nameKey);
+        all.remove(entry.slot);
+        Partition partition = byType.get(entry.type);
+        partition.remove(entry.typeSlot);
+        if(partition.size() == 0) byType.remove(entry.type);
+        if(all.gaps() > Math.max(MIN_COMPACT_GAPS, all.size())) compact();
+        return true;
+    }
+
+    /**
+     * Renames an owned critter, keeping the name index up to date. Renames critters that aren't owned too.
+     *
+     * @param savedAnimal The critter being renamed
+     * @param name The new name, or null to clear it
+     */
+    public void rename(SavedAnimal savedAnimal, String name) {
+        Entry entry = entries.get(savedAnimal.getEntityUuid());
+        if(entry != null && entry.nameKey != null) byName.remove(entry.nameKey);
+        savedAnimal.setEntityName(name);
+        if(entry != null) indexName(entry);
+    }
+
+    /**
+     * Finds the critter a name or UUID prefix refers to.
+     * A critter whose whole name matches wins, then the first name alphabetically, then the first UUID.
+     * Critters that share a name are ordered by their index.
+     *
+     * @param identifier The lowercase prefix
+     * @return The critter, or null if nothing matches
+     */
+    public SavedAnimal findByPrefix(String identifier) {
+        if(identifier.isEmpty()) return null;
+        Entry entry = firstWithPrefix(byName, identifier + NAME_SEPARATOR);
+        if(entry == null) entry = firstWithPrefix(byName, identifier);
+        if(entry == null) entry = firstWithPrefix(byUuid, identifier);
+        return entry != null ? entry.savedAnimal : null;
+    }
+
+    /**
+     * Lists the names, and failing those the UUIDs, of the critters that start with a prefix.
+     * Names with spaces are left out, as they can't be typed as a single argument.
+     *
+     * @param prefix The lowercase prefix
+     * @param limit The most completions to return
+     * @return The completions, in alphabetical order
+     */
+    public List<String> complete(String prefix, int limit) {
+        List<String> completions = new ArrayList<>();
+        String last = null;
+        for(Map.Entry<String, Entry> mapEntry : byName.tailMap(prefix, true).entrySet()) {
+            if(completions.size() >= limit || !mapEntry.getKey().startsWith(prefix)) break;
+            String name = mapEntry.getValue().savedAnimal.getEntityName();
+            if(name.indexOf(' ') >= 0 || name.equalsIgnoreCase(last)) continue;
+            completions.add(name);
+            last = name;
+        }
+        if(!completions.isEmpty() || prefix.isEmpty()) return completions;
+        for(String uuidKey : byUuid.tailMap(prefix, true).keySet()) {
+            if(completions.size() >= limit || !uuidKey.startsWith(prefix)) break;
+            completions.add(uuidKey);
+        }
+        return completions;
+    }
+
+    /**
+     * Fetches an owned critter by its UUID.
+     *
+     * @param entityUuid The UUID of the critter
+     * @return The critter, or null if it isn't owned
+     */
+    public SavedAnimal get(UUID entityUuid) {
+        Entry entry = entries.get(entityUuid);
+        return entry != null ? entry.savedAnimal : null;
+    }
+
+    /**
+     * Fetches the critter shown at an index in "/cg list".
+     *
+     * @param index The index, starting at 1
+     * @return The critter, or null if the index is out of range
+     */
+    public SavedAnimal getByIndex(int index) {
+        if(index < 1 || index > all.size()) return null;
+        return all.get(index - 1);
+    }
+
+    /**
+     * Finds the index a critter is shown at in "/cg list".
+     *
+     * @param savedAnimal The critter
+     * @return The index, starting at 1, or 0 if the critter isn't owned
+     */
+    public int indexOf(SavedAnimal savedAnimal) {
+        Entry entry = entries.get(savedAnimal.getEntityUuid());
+        return entry != null ? all.rank(entry.slot) + 1 : 0;
+    }
+
+    /**
+     * Counts the owned critters of an entity type.
+     *
+     * @param entityType The entity type, in any case, or null for every type
+     * @return The number of critters
+     */
+    public int size(String entityType) {
+        if(entityType == null) return all.size();
+        Partition partition = byType.get(typeKey(entityType));
+        return partition != null ? partition.size() : 0;
+    }
+
+    /**
+     * Fetches a run of owned critters of an entity type, in index order.
+     *
+     * @param entityType The entity type, in any case, or null for every type
+     * @param offset The number of critters of that type to skip
+     * @param limit The most critters to return
+     * @return The critters
+     */
+    public List<SavedAnimal> getRange(String entityType, int offset, int limit) {
+        Partition partition = entityType == null ? all : byType.get(typeKey(entityType));
+        List<SavedAnimal> range = new ArrayList<>(Math.max(0, Math.min(limit, 64)));
+        if(partition != null) partition.collect(offset, limit, range);
+        return range;
+    }
+
+    /**
+     * Runs an action on every owned critter, in index order.
+     *
+     * @param action The action to run
+     */
+    public void forEach(Consumer<SavedAnimal> action) {
+        all.forEach(action);
+    }
+
+    //------------------------------------------------------------------------------------------------------------------
+
+    /**
+     * Stores an entry in the next free slot of its partitions.
+     *
+     * @param entry The entry being stored
+     */
+    private void place(Entry entry) {
+        entry.slot = all.add(entry.savedAnimal);
+        entry.typeSlot = byType.computeIfAbsent(entry.type, type -> new Partition()).add(entry.savedAnimal);
+    }
+
+    /**
+     * Adds an entry to the name index under its critter's current name.
+     *
+     * @param entry The entry being indexed
+     */
+    private void indexName(Entry entry) {
+        String name = entry.savedAnimal.getEntityName();
+        entry.nameKey = name == null ? null : name.toLowerCase() + NAME_SEPARATOR + orderSuffix(entry.order);
+        if(entry.nameKey != null) byName.put(entry.nameKey, entry);
+    }
+
+    /**
+     * Rebuilds the partitions without their empty slots, keeping every critter's order.
+     */
+    private void compact() {
+        Partition previous = all;
+        all = new Partition();
+        byType = new HashMap<>();
+        previous.forEach(savedAnimal -> place(entries.get(savedAnimal.getEntityUuid())));
+    }
+
+    /**
+     * Finds the first entry in an index whose key starts with a prefix.
+     *
+     * @param index The index being searched
+     * @param prefix The prefix
+     * @return The entry, or null if no key starts with the prefix
+     */
+    private static Entry firstWithPrefix(TreeMap<String, Entry> index, String prefix) {
+        String key = index.ceilingKey(prefix);
+        return key != null && key.startsWith(prefix) ? index.get(key) : null;
+    }
+
+    /**
+     * Encodes the order a critter was added in so that it sorts correctly as a string.
+     *
+     * @param order The order the critter was added in
+     * @return Four characters that sort in the same order as the number
+     */
+    private static String orderSuffix(long order) {
+        return new String(new char[] {(char) (order >>> 48), (char) (order >>> 32), (char) (order >>> 16),
+                (char) order});
+    }
+
+    /**
+     * Converts an entity type into the key of its partition.
+     *
+     * @param entityType The entity type
+     * @return The key
+     */
+    private static String typeKey(String entityType) {
+        return entityType != null ? entityType.toLowerCase() : "";
+    }
+
+    //------------------------------------------------------------------------------------------------------------------
+
+    /**
+     * Where an owned critter is stored.
+     */
+    private static final class Entry {
+
+        /**
+         * The owned critter.
+         */
+        private final SavedAnimal savedAnimal;
+        /**
+         * The key of the critter's entity type partition.
+         */
+        private final String type;
+        /**
+         * The order the critter was added in.
+         */
+        private final long order;
+        /**
+         * The critter's key in the UUID index.
+         */
+        private final String uuidKey;
+        /**
+         * The critter's key in the name index, or null if it has no name.
+         */
+        private String nameKey;
+        /**
+         * The critter's slot among every owned critter.
+         */
+        private int slot;
+        /**
+         * The critter's slot in its entity type partition.
+         */
+        private int typeSlot;
+
+        /**
+         * Initializes the entry.
+         *
+         * @param savedAnimal The owned critter
+         * @param type The key of the critter's entity type partition
+         * @param order The order the critter was added in
+         * @param uuidKey The critter's UUID string
+         */
+        private Entry(SavedAnimal savedAnimal, String type, long order, String uuidKey) {
+            this.savedAnimal = savedAnimal;
+            this.type = type;
+            this.order = order;
+            this.uuidKey = uuidKey;
+        }
+
+    }
+
+    /**
+     * An append-only run of slots, with a Fenwick tree counting the occupied ones.
+     */
+    private static final class Partition {
+
+        /**
+         * The critter in each slot, or null if it was removed.
+         */
+        private SavedAnimal[] slots = new SavedAnimal[8];
+        /**
+         * The Fenwick tree over the occupied slots, indexed from 1.
+         */
+        private int[] tree = new int[9];
+        /**
+         * The number of slots handed out.
+         */
+        private int used;
+        /**
+         * The number of occupied slots.
+         */
+        private int size;
+
+        /**
+         * Puts a critter in the next slot.
+         *
+         * @param savedAnimal The critter
+         * @return The slot it was put in
+         */
+        private int add(SavedAnimal savedAnimal) {
+            if(used == slots.length) grow();
+            slots[used] = savedAnimal;
+            update(used, 1);
+            size++;
+            return used++;
+        }
+
+        /**
+         * Empties a slot.
+         *
+         * @param slot The slot
+         */
+        private void remove(int slot) {
+            if(slots[slot] == null) return;
+            slots[slot] = null;
+            update(slot, -1);
+            size--;
+        }
+
+        /**
+         * Fetches the critter at a position among the occupied slots.
+         *
+         * @param rank The position, starting at 0
+         * @return The critter
+         */
+        private SavedAnimal get(int rank) {
+            return slots[select(rank)];
+        }
+
+        /**
+         * Counts the occupied slots before a slot.
+         *
+         * @param slot The slot
+         * @return The number of occupied slots before it
+         */
+        private int rank(int slot) {
+            int count = 0;
+            for(int i = slot; i > 0; i -= i & -i) {
+                count += tree[i];
+            }
+            return count;
+        }
+
+        /**
+         * Finds the slot holding the critter at a position among the occupied slots.
+         *
+         * @param rank The position, starting at 0, which must be less than the size
+         * @return The slot
+         */
+        private int select(int rank) {
+            int position = 0;
+            int remaining = rank + 1;
+            for(int step = Integer.highestOneBit(slots.length); step > 0; step >>= 1) {
+                int next = position + step;
+                if(next <= slots.length && tree[next] < remaining) {
+                    position = next;
+                    remaining -= tree[next];
+                }
+            }
+            return position;
+        }
+
+        /**
+         * Adds a run of critters, in slot order, to a list.
+         *
+         * @param offset The number of critters to skip
+         * @param limit The most critters to add
+         * @param out The list they're added to
+         */
+        private void collect(int offset, int limit, List<SavedAnimal> out) {
+            if(offset < 0 || offset >= size || limit <= 0) return;
+            int added = 0;
+            for(int slot = select(offset); slot < used && added < limit; slot++) {
+                if(slots[slot] == null) continue;
+                out.add(slots[slot]);
+                added++;
+            }
+        }
+
+        /**
+         * Runs an action on every critter, in slot order.
+         *
+         * @param action The action to run
+         */
+        private void forEach(Consumer<SavedAnimal> action) {
+            for(int slot = 0; slot < used; slot++) {
+                if(slots[slot] != null) action.accept(slots[slot]);
+            }
+        }
+
+        /**
+         * Returns the number of occupied slots.
+         *
+         * @return The number of occupied slots
+         */
+        private int size() {
+            return size;
+        }
+
+        /**
+         * Returns the number of slots that have been emptied.
+         *
+         * @return The number of empty slots
+         */
+        private int gaps() {
+            return used - size;
+        }
+
+        /**
+         * Changes the count of a slot in the Fenwick tree.
+         *
+         * @param slot The slot
+         * @param delta The change in its count
+         */
+        private void update(int slot, int delta) {
+            for(int i = slot + 1; i <= slots.length; i += i & -i) {
+                tree[i] += delta;
+            }
+        }
+
+        /**
+         * Doubles the number of slots and rebuilds the Fenwick tree to cover them.
+         */
+        private void grow() {
+            SavedAnimal[] grown = new SavedAnimal[slots.length * 2];
+            System.arraycopy(slots, 0, grown, 0, used);
+            slots = grown;
+            tree = new int[grown.length + 1];
+            for(int i = 1; i <= grown.length; i++) {
+                if(slots[i - 1] != null) tree[i]++;
+                int parent = i + (i & -i);
+                if(parent <= grown.length) tree[parent] += tree[i];
+            }
+        }
+
+    }
+
+}
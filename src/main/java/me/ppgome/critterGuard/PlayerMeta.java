@@ -12,6 +12,7 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 /**
  * PlayerMeta holds metadata for a player, including their UUID and a list of MountAccess objects
@@ -26,9 +27,9 @@ public class PlayerMeta {
     private UUID uuid;
 
     /**
-     * List of all critters owned by the player.
+     * All critters owned by the player, in index order and partitioned by entity type.
      */
-    private ArrayList<SavedAnimal> ownedList;
+    private OwnedCritters ownedCritters;
 
     /**
      * The list of mounts the player has access to.
@@ -50,11 +51,21 @@ public class PlayerMeta {
      * @param uuid the UUID of the player.
      */
     public PlayerMeta(UUID uuid, CritterGuard plugin) {
+        this(uuid, plugin.getCGConfig(), new NamespacedKey(plugin, "cg_notif_toggle"));
+    }
+
+    /**
+     * Initializes PlayerMeta for a player without going through the plugin instance.
+     * @param uuid the UUID of the player.
+     * @param config the configuration used for the player's messages.
+     * @param notificationKey the key the player's notification toggle is stored under.
+     */
+    public PlayerMeta(UUID uuid, CGConfig config, NamespacedKey notificationKey) {
         this.uuid = uuid;
-        this.ownedList = new ArrayList<>();
+        this.ownedCritters = new OwnedCritters();
         this.accessList = new java.util.HashSet<>();
-        this.config = plugin.getCGConfig();
-        notificationKey = new NamespacedKey(plugin, "cg_notif_toggle");
+        this.config = config;
+        this.notificationKey = notificationKey;
     }
 
     //------------------------------------------------------------------------------------------------------------------
@@ -65,7 +76,7 @@ public class PlayerMeta {
      * @param savedAnimal the SavedAnimal instance of the critter being added
      */
     public void addOwnedAnimal(SavedAnimal savedAnimal) {
-        this.ownedList.add(savedAnimal);
+        this.ownedCritters.add(savedAnimal);
     }
 
     /**
@@ -74,11 +85,17 @@ public class PlayerMeta {
      * @param savedAnimal the SavedAnimal instance of the critter being removed
      */
     public void removeOwnedAnimal(SavedAnimal savedAnimal) {
-        this.ownedList.remove(savedAnimal);
-        // Update indices
-        for (int i = 0; i < ownedList.size(); i++) {
-            ownedList.get(i).setIndex(i + 1);
-        }
+        this.ownedCritters.remove(savedAnimal);
+    }
+
+    /**
+     * Renames one of the player's critters, keeping the lookup by name up to date.
+     *
+     * @param savedAnimal the SavedAnimal instance of the critter being renamed
+     * @param name the new name of the critter
+     */
+    public void renameOwnedAnimal(SavedAnimal savedAnimal, String name) {
+        this.ownedCritters.rename(savedAnimal, name);
     }
 
     /**
@@ -152,13 +169,80 @@ public class PlayerMeta {
     }
 
     /**
-     * Gets the list of mounts owned by the player.
-     * @return the list of owned mounts.
+     * Gets a copy of the list of critters owned by the player, in index order.
+     * @return the list of owned critters.
      */
     public List<SavedAnimal> getOwnedList() {
+        List<SavedAnimal> ownedList = new ArrayList<>(ownedCritters.size(null));
+        ownedCritters.forEach(ownedList::add);
         return ownedList;
     }
 
+    /**
+     * Gets the number of critters of a type owned by the player.
+     * @param entityType the entity type, or null for every type.
+     * @return the number of owned critters.
+     */
+    public int getOwnedCount(String entityType) {
+        return ownedCritters.size(entityType);
+    }
+
+    /**
+     * Gets a page of the critters of a type owned by the player, in index order.
+     * @param entityType the entity type, or null for every type.
+     * @param page the page number, starting at 1.
+     * @param pageSize the number of critters on each page.
+     * @return the critters on the page, which is empty if the page is out of range.
+     */
+    public List<SavedAnimal> getOwnedPage(String entityType, int page, int pageSize) {
+        return ownedCritters.getRange(entityType, (page - 1) * pageSize, pageSize);
+    }
+
+    /**
+     * Retrieves an owned critter by the index it's shown at in "/cg list".
+     * @param index the index of the critter, starting at 1.
+     * @return the SavedAnimal if found, null otherwise.
+     */
+    public SavedAnimal getOwnedAnimalByIndex(int index) {
+        return ownedCritters.getByIndex(index);
+    }
+
+    /**
+     * Gets the index an owned critter is shown at in "/cg list".
+     * @param savedAnimal the owned critter.
+     * @return the index of the critter, starting at 1, or 0 if the player doesn't own it.
+     */
+    public int getIndexOf(SavedAnimal savedAnimal) {
+        return ownedCritters.indexOf(savedAnimal);
+    }
+
+    /**
+     * Retrieves an owned critter by the start of its name or UUID.
+     * @param identifier the lowercase start of the critter's name or UUID.
+     * @return the SavedAnimal if found, null otherwise.
+     */
+    public SavedAnimal getOwnedAnimalByPrefix(String identifier) {
+        return ownedCritters.findByPrefix(identifier);
+    }
+
+    /**
+     * Gets the names, or failing those the UUIDs, of the player's critters that start with a prefix.
+     * @param prefix the lowercase prefix.
+     * @param limit the most completions to return.
+     * @return the completions, in alphabetical order.
+     */
+    public List<String> completeOwnedIdentifier(String prefix, int limit) {
+        return ownedCritters.complete(prefix, limit);
+    }
+
+    /**
+     * Runs an action on every critter owned by the player, in index order.
+     * @param action the action to run.
+     */
+    public void forEachOwned(Consumer<SavedAnimal> action) {
+        ownedCritters.forEach(action);
+    }
+
     /**
      * Gets the list of mounts the player has access to.
      * @return the list of mount access objects.
@@ -173,10 +257,7 @@ public class PlayerMeta {
      * @return the SavedAnimal if found, null otherwise.
      */
     public SavedAnimal getOwnedAnimalByUuid(UUID animalUuid) {
-        for(SavedAnimal savedAnimal : ownedList) {
-            if(savedAnimal.getEntityUuid().equals(animalUuid)) return savedAnimal;
-        }
-        return null;
+        return ownedCritters.get(animalUuid);
     }
 
 }
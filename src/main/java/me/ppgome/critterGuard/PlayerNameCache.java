@@ -0,0 +1,230 @@
+package me.ppgome.critterGuard;
+
+import org.bukkit.Bukkit;
+import org.bukkit.OfflinePlayer;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Resolves player names to UUIDs and back without blocking the main thread.
+ *
+ * Results are kept in a bounded cache that forgets the least recently used entries and anything older than the
+ * configured time to live. Lookups that miss the cache run off the main thread, and concurrent lookups of the same
+ * player share one future, so a crowd of players hitting the same locked mount causes a single lookup.
+ */
+public class PlayerNameCache {
+
+    /**
+     * The instance of the plugin.
+     */
+    private final CritterGuard plugin;
+    /**
+     * The maximum number of players remembered in each direction.
+     */
+    private final int maxSize;
+    /**
+     * How long a result is remembered, in milliseconds.
+     */
+    private final long timeToLive;
+    /**
+     * Player names by UUID, in least recently used order. Guarded by itself.
+     */
+    private final LinkedHashMap<UUID, Entry<String>> namesByUuid;
+    /**
+     * Player UUIDs by lowercase name, in least recently used order. Guarded by itself.
+     */
+    private final LinkedHashMap<String, Entry<UUID>> uuidsByName;
+    /**
+     * Name lookups that are currently running, by the UUID being looked up.
+     */
+    private final ConcurrentHashMap<UUID, CompletableFuture<String>> pendingNames = new ConcurrentHashMap<>();
+    /**
+     * UUID lookups that are currently running, by the lowercase name being looked up.
+     */
+    private final ConcurrentHashMap<String, CompletableFuture<UUID>> pendingUuids = new ConcurrentHashMap<>();
+
+    //------------------------------------------------------------------------------------------------------------------
+
+    /**
+     * Initializes an empty cache sized from the config.
+     *
+     * @param plugin The instance of the plugin
+     */
+    public PlayerNameCache(CritterGuard plugin) {
+        this.plugin = plugin;
+        this.maxSize = Math.max(1, plugin.getCGConfig().NAME_CACHE_SIZE);
+        this.timeToLive = plugin.getCGConfig().NAME_CACHE_TTL_MINUTES * 60_000L;
+        this.namesByUuid = boundedMap(maxSize);
+        this.uuidsByName = boundedMap(maxSize);
+    }
+
+    //------------------------------------------------------------------------------------------------------------------
+
+    /**
+     * Remembers a player's current name, replacing anything cached for them.
+     * Called when players join so online players never need a lookup.
+     *
+     * @param playerUuid The UUID of the player
+     * @param playerName The name of the player
+     */
+    public void remember(UUID playerUuid, String playerName) {
+        long expiresAt = System.currentTimeMillis() + timeToLive;
+        synchronized(namesByUuid) {
+            namesByUuid.put(playerUuid, new Entry<>(playerName, expiresAt));
+        }
+        if(playerName == null) return;
+        synchronized(uuidsByName) {
+            uuidsByName.put(playerName.toLowerCase(), new Entry<>(playerUuid, expiresAt));
+        }
+    }
+
+    /**
+     * Fetches a player's name from their UUID.
+     *
+     * @param playerUuid The UUID of the player
+     * @return A future completed with the player's name, or null if the server doesn't know it
+     */
+    public CompletableFuture<String> getName(UUID playerUuid) {
+        Entry<String> cached = getFresh(namesByUuid, playerUuid);
+        if(cached != null) return CompletableFuture.completedFuture(cached.value());
+        return resolve(playerUuid, pendingNames, uuid -> {
+            String playerName = Bukkit.getOfflinePlayer(uuid).getName();
+            remember(uuid, playerName);
+            return playerName;
+        });
+    }
+
+    /**
+     * Fetches a player who has played on the server before from their name.
+     *
+     * @param playerName The name of the player, in any case
+     * @return A future completed with the player, or null if they've never played on the server
+     */
+    public CompletableFuture<OfflinePlayer> getOfflinePlayer(String playerName) {
+        String key = playerName.toLowerCase();
+        Entry<UUID> cached = getFresh(uuidsByName, key);
+        CompletableFuture<UUID> future = cached != null ? CompletableFuture.completedFuture(cached.value())
+                : resolve(key, pendingUuids, name -> {
+                    OfflinePlayer offlinePlayer = Bukkit.getOfflinePlayer(playerName);
+                    UUID playerUuid = offlinePlayer.hasPlayedBefore() || offlinePlayer.isOnline()
+                            ? offlinePlayer.getUniqueId() : null;
+                    rememberUuid(name, playerUuid, offlinePlayer.getName());
+                    return playerUuid;
+                });
+        // Looking a player up by UUID never blocks, so this is safe wherever the future completes
+        return future.thenApply(playerUuid -> playerUuid == null ? null : Bukkit.getOfflinePlayer(playerUuid));
+    }
+
+    /**
+     * Looks up the names of players who own critters in the background so they're cached before anyone asks.
+     * Stops once the cache is full.
+     *
+     * @param playerUuids The UUIDs of the players
+     */
+    public void warm(Collection<UUID> playerUuids) {
+        List<UUID> toWarm = new ArrayList<>(playerUuids);
+        Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
+            int warmed = 0;
+            for(UUID playerUuid : toWarm) {
+                if(warmed++ >= maxSize) break;
+                if(getFresh(namesByUuid, playerUuid) != null) continue;
+                remember(playerUuid, Bukkit.getOfflinePlayer(playerUuid).getName());
+            }
+        });
+    }
+
+    //------------------------------------------------------------------------------------------------------------------
+
+    /**
+     * Remembers the result of looking a player up by name.
+     *
+     * @param key The lowercase name that was looked up
+     * @param playerUuid The UUID found, or null if the player has never played on the server
+     * @param playerName The player's name as the server knows it
+     */
+    private void rememberUuid(String key, UUID playerUuid, String playerName) {
+        if(playerUuid != null) {
+            remember(playerUuid, playerName);
+            if(playerName != null && playerName.equalsIgnoreCase(key)) return;
+        }
+        synchronized(uuidsByName) {
+            uuidsByName.put(key, new Entry<>(playerUuid, System.currentTimeMillis() + timeToLive));
+        }
+    }
+
+    /**
+     * Runs a lookup off the main thread, or joins the one already running for the same key.
+     *
+     * @param key The key being looked up
+     * @param pending The lookups currently running
+     * @param lookup The blocking lookup, which is also responsible for caching its result
+     * @return A future completed with the result of the lookup
+     */
+    private <K, V> CompletableFuture<V> resolve(K key, ConcurrentHashMap<K, CompletableFuture<V>> pending,
+                                                Function<K, V> lookup) {
+        CompletableFuture<V> future = new CompletableFuture<>();
+        CompletableFuture<V> running = pending.putIfAbsent(key, future);
+        if(running != null) return running;
+
+        // Profile lookups can block on the network, so they run on the plugin's async tasks, not the common pool
+        Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
+            try {
+                V value = lookup.apply(key);
+                pending.remove(key, future);
+                future.complete(value);
+            } catch(Throwable throwable) {
+                pending.remove(key, future);
+                future.completeExceptionally(throwable);
+            }
+        });
+        return future;
+    }
+
+    /**
+     * Fetches an entry from a cache map if it hasn't expired.
+     *
+     * @param map The cache map
+     * @param key The key being looked up
+     * @return The entry, or null if it's missing or expired
+     */
+    private static <K, V> Entry<V> getFresh(LinkedHashMap<K, Entry<V>> map, K key) {
+        synchronized(map) {
+            Entry<V> entry = map.get(key);
+            if(entry == null) return null;
+            if(entry.expiresAt() < System.currentTimeMillis()) {
+                map.remove(key);
+                return null;
+            }
+            return entry;
+        }
+    }
+
+    /**
+     * Creates a map that keeps entries in least recently used order and drops the oldest past its maximum size.
+     *
+     * @param maxSize The maximum number of entries
+     * @return The map
+     */
+    private static <K, V> LinkedHashMap<K, V> boundedMap(int maxSize) {
+        return new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    //------------------------------------------------------------------------------------------------------------------
+
+    /**
+     * A cached lookup result.
+     *
+     * @param value The result, which may be null if the player wasn't found
+     * @param expiresAt When the result should be forgotten, in milliseconds since the epoch
+     */
+    private record Entry<V>(V value, long expiresAt) {}
+
+}
@@ -48,7 +48,7 @@ public class AccessAction implements ActionHandler {
 
             boolean hasAccess = savedMount.hasAccess(playerBeingAddedUuid);
 
-            MountAccess mountAccess = new MountAccess(entityUuid.toString(), playerBeingAddedUuid.toString());
+            MountAccess mountAccess = new MountAccess(entityUuid, playerBeingAddedUuid);
 
             if(!savedMount.isOwner(player.getUniqueId())) return;
 
@@ -43,7 +43,7 @@ public class InfoAction implements ActionHandler {
             } else {
                 SavedMount mount = cache.getSavedMount(clickedEntity.getUniqueId());
                 if(mount != null) {
-                    ownerName = Bukkit.getOfflinePlayer(mount.getEntityOwnerUuid()).getName();
+                    ownerName = plugin.getPlayerNameCache().getName(mount.getEntityOwnerUuid()).join();
                     buildInfo(clickedEntity, player, ownerName);
                 } else {
                     buildInfo(clickedEntity, player, "Nobody");
@@ -104,7 +104,7 @@ public class InfoAction implements ActionHandler {
             List<String> passengerNamesList = new ArrayList<>();
 
             for(MountAccess mountAccess : mountAccessMap.values()) {
-                String name = Bukkit.getOfflinePlayer(UUID.fromString(mountAccess.getPlayerUuid())).getName();
+                String name = plugin.getPlayerNameCache().getName(mountAccess.getPlayerUuid()).join();
                 if(mountAccess.isFullAccess()) fullNamesList.add(name);
                 else passengerNamesList.add(name);
             }
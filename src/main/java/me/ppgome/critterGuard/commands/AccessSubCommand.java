@@ -4,6 +4,7 @@ import me.ppgome.critterGuard.CGConfig;
 import me.ppgome.critterGuard.CritterCache;
 import me.ppgome.critterGuard.CritterGuard;
 import me.ppgome.critterGuard.actions.AccessAction;
+import me.ppgome.critterGuard.utility.MessageTemplate;
 import me.ppgome.critterGuard.utility.MessageUtils;
 import me.ppgome.critterGuard.database.MountAccess;
 import me.ppgome.critterGuard.utility.PlaceholderParser;
@@ -67,11 +68,9 @@ public class AccessSubCommand implements SubCommandHandler {
 
         String playerName = isAdd ? args[2] : args[1];
 
-        Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
-            OfflinePlayer playerBeingAdded = Bukkit.getOfflinePlayer(playerName);
-
+        plugin.getPlayerNameCache().getOfflinePlayer(playerName).thenAccept(playerBeingAdded -> {
             // Check if player exists (has played before)
-            if (!playerBeingAdded.hasPlayedBefore() && !playerBeingAdded.isOnline()) {
+            if (playerBeingAdded == null) {
                 Bukkit.getScheduler().runTask(plugin, () -> player.sendMessage(PlaceholderParser
                         .of(config.ACCESS_NO_PLAYER).player(playerName).parse()));
                 return;
@@ -111,7 +110,7 @@ public class AccessSubCommand implements SubCommandHandler {
      * @param isFullAccess True if the access being granted/removed is full, false if it's passenger
      */
     public void sendClickMessage(Player player, OfflinePlayer playerBeingAdded, boolean isAdd, boolean isFullAccess) {
-        String message;
+        MessageTemplate message;
         if(isAdd) {
             if(isFullAccess) {
                 message = config.CLICK_GRANT_FULL_ACCESS;
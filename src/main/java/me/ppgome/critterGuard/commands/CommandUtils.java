@@ -10,9 +10,15 @@ import java.util.List;
  */
 public class CommandUtils {
 
+    /**
+     * The most critter identifiers suggested at once.
+     */
+    private static final int MAX_COMPLETIONS = 50;
+
     /**
      * Searches a player's critters to find one that matches the specified identifier.
-     * This checks the index numbers of the critters in "/cg list" as well as their names and UUIDs.
+     * This checks the index numbers of the critters in "/cg list" as well as the start of their names and UUIDs.
+     * A whole name beats the start of a name, which beats the start of a UUID.
      *
      * @param critterIdentifier The identifier that will be checked against the player's critters
      * @param playerMeta The player's playermeta to fetch their critters
@@ -24,23 +30,26 @@ public class CommandUtils {
             // If the identifier is numeric, check if it matches the index
             int index;
             try {
-                index = Integer.parseInt(critterIdentifier) - 1; // Convert to zero-based index
+                index = Integer.parseInt(critterIdentifier);
             } catch (NumberFormatException e) {
                 return null; // String is not a parsable integer (greater than Integer.MAX_VALUE?)
             }
-            List<SavedAnimal> ownedList = playerMeta.getOwnedList();
-            if (index >= 0 && index < ownedList.size()) {
-                return ownedList.get(index);
-            }
-        }
-        // If not numeric, check for UUID or name match
-        for (SavedAnimal savedAnimal : playerMeta.getOwnedList()) {
-            if (savedAnimal.getEntityUuid().toString().toLowerCase().startsWith(critterIdentifier) ||
-                    (savedAnimal.getEntityName() != null &&
-                            savedAnimal.getEntityName().toLowerCase().startsWith(critterIdentifier))) {
-                return savedAnimal;
-            }
+            SavedAnimal savedAnimal = playerMeta.getOwnedAnimalByIndex(index);
+            if (savedAnimal != null) return savedAnimal;
         }
-        return null;
+        // If not numeric, check for name or UUID match
+        return playerMeta.getOwnedAnimalByPrefix(critterIdentifier);
+    }
+
+    /**
+     * Completes a critter identifier from the names, or failing those the UUIDs, of a player's critters.
+     *
+     * @param partialIdentifier What has been typed of the identifier so far
+     * @param playerMeta The player's playermeta to fetch their critters, or null if they have none
+     * @return The completions
+     */
+    public static List<String> completeIdentifier(String partialIdentifier, PlayerMeta playerMeta) {
+        if(playerMeta == null) return List.of();
+        return playerMeta.completeOwnedIdentifier(partialIdentifier.toLowerCase(), MAX_COMPLETIONS);
     }
 }
@@ -45,6 +45,8 @@ public class CritterCommand implements CommandExecutor, TabCompleter {
         registerSubCommand(new TameSubCommand(plugin));
         registerSubCommand(new UntameSubCommand(plugin));
         registerSubCommand(new ReloadSubCommand(plugin));
+        registerSubCommand(new StatsSubCommand(plugin));
+        registerSubCommand(new NearSubCommand(plugin));
         registerSubCommand(new ToggleNotifsSubCommand(plugin));
         registerSubCommand(new ShowDisguiseSubCommand(plugin));
         registerSubCommand(new InfoSubCommand(plugin));
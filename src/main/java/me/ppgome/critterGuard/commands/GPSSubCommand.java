@@ -12,6 +12,7 @@ import org.bukkit.Bukkit;
 import org.bukkit.Location;
 import org.bukkit.command.CommandSender;
 import org.bukkit.entity.Entity;
+import org.bukkit.entity.Player;
 
 import java.util.List;
 import java.util.UUID;
@@ -48,7 +49,7 @@ public class GPSSubCommand implements SubCommandHandler {
 
     @Override
     public void execute(CommandSender sender, String[] args) {
-        if(!(sender instanceof org.bukkit.entity.Player player)) return;
+        if(!(sender instanceof Player player)) return;
         String critterIdentifier = args[0].toLowerCase();
         PlayerMeta playerMeta = critterCache.getPlayerMeta(player.getUniqueId());
 
@@ -85,6 +86,9 @@ public class GPSSubCommand implements SubCommandHandler {
 
     @Override
     public List<String> tabComplete(CommandSender sender, String[] args) {
+        if(args.length == 1 && sender instanceof Player player) {
+            return CommandUtils.completeIdentifier(args[0], critterCache.getPlayerMeta(player.getUniqueId()));
+        }
         return List.of();
     }
 
@@ -12,7 +12,6 @@ import net.kyori.adventure.text.event.HoverEvent;
 import net.kyori.adventure.text.format.NamedTextColor;
 import org.bukkit.Bukkit;
 import org.bukkit.Location;
-import org.bukkit.OfflinePlayer;
 import org.bukkit.command.CommandSender;
 import org.bukkit.entity.Entity;
 import org.bukkit.entity.Player;
@@ -28,6 +27,11 @@ import java.util.regex.Pattern;
  */
 public class ListSubCommand implements SubCommandHandler {
 
+    /**
+     * The number of critters shown on each page.
+     */
+    private static final int ANIMALS_PER_PAGE = 5;
+
     /**
      * The instance of the plugin.
      */
@@ -127,12 +131,8 @@ public class ListSubCommand implements SubCommandHandler {
      * @param page        The page number to retrieve.
      */
     private void getData(Player player, String entityType, PlayerMeta playerMeta, int page) {
-        if(playerMeta != null && !playerMeta.getOwnedList().isEmpty()){
-            List<SavedAnimal> filteredList = getFilteredList(playerMeta.getOwnedList(), entityType);
-            int totalPages = 0;
-            if(!filteredList.isEmpty()) totalPages = (int) Math.ceil((double) filteredList.size() / 5); // Calculate total pages based on 5 items per page
-            outputList(getAnimalsPerPage(filteredList, page, totalPages), player, player.getName(), entityType, page,
-                    totalPages);
+        if(playerMeta != null && playerMeta.getOwnedCount(null) > 0){
+            outputPage(player, player.getName(), entityType, playerMeta, page);
         } else {
             player.sendMessage(config.LIST_DOES_NOT_EXIST_OR_OWN);
         }
@@ -148,14 +148,8 @@ public class ListSubCommand implements SubCommandHandler {
      */
     private void getDataAsync(Player player, String entityType, String searchedName, int page) {
         getPlayerMeta(searchedName).thenAccept(meta -> Bukkit.getScheduler().runTask(plugin, () -> {
-            if (meta != null && !meta.getOwnedList().isEmpty()) {
-                Bukkit.getScheduler().runTask(plugin, () -> {
-                            List<SavedAnimal> filteredList = getFilteredList(meta.getOwnedList(), entityType);
-                            int totalPages = 0;
-                            if(!filteredList.isEmpty()) totalPages = (int) Math.ceil((double) filteredList.size() / 5); // Calculate total pages based on 5 items per page
-                            outputList(getAnimalsPerPage(filteredList, page, totalPages), player, searchedName,
-                                    entityType, page, totalPages);
-                        });
+            if (meta != null && meta.getOwnedCount(null) > 0) {
+                outputPage(player, searchedName, entityType, meta, page);
             } else {
                 player.sendMessage(config.LIST_DOES_NOT_EXIST_OR_OWN);
             }
@@ -163,56 +157,33 @@ public class ListSubCommand implements SubCommandHandler {
     }
 
     /**
-     * Applies the entity filter so that only the specified entity type appears in the list.
-     *
-     * @param animalList The unfiltered list of all critters
-     * @param entityType The entity type to filter by
-     * @return The filtered list of critters
-     */
-    private List<SavedAnimal> getFilteredList(List<SavedAnimal> animalList, String entityType) {
-        List<SavedAnimal> filteredList = new ArrayList<>();
-
-        if (entityType.equals("all")) {
-            filteredList.addAll(animalList); // If "all", return the entire list
-        } else {
-            for (SavedAnimal animal : animalList) {
-                if (animal.getEntityType().equalsIgnoreCase(entityType)) {
-                    filteredList.add(animal); // Filter by entity type
-                }
-            }
-        }
-
-        return filteredList;
-
-    }
-
-    /**
-     * Retrieves a sublist of animals for the specified page.
-     * Each page contains a maximum of 5 animals.
+     * Reads the requested page of a player's critters of the specified entity type and outputs it.
+     * Only the critters on the page are read, however many critters the player owns.
      *
-     * @param filteredList The list of filtered animals.
+     * @param player       The player who executed the command.
+     * @param searchedName The name of the player whose critters are being listed.
+     * @param entityType   The type of entity to filter by, or "all".
+     * @param playerMeta   The PlayerMeta data for the listed player.
      * @param page         The page number to retrieve.
-     * @return A sublist of animals for the specified page.
      */
-    private List<SavedAnimal> getAnimalsPerPage(List<SavedAnimal> filteredList, int page, int totalPages) {
-
-        if(filteredList.isEmpty()) return filteredList;
-
+    private void outputPage(Player player, String searchedName, String entityType, PlayerMeta playerMeta, int page) {
+        String filter = entityType.equals("all") ? null : entityType;
+        int totalPages = (playerMeta.getOwnedCount(filter) + ANIMALS_PER_PAGE - 1) / ANIMALS_PER_PAGE;
+        if(page > totalPages) page = totalPages; // Ensure page does not exceed total pages
         if(page < 1) page = 1; // Ensure page is at least 1
-        if (page > totalPages) page = totalPages; // Ensure page does not exceed total pages
-
-        int startIndex = (page - 1) * 5; // Calculate start index for the page
-        int endIndex = Math.min(startIndex + 5, filteredList.size()); // Calculate end index, ensuring it does not exceed the list size
-        return filteredList.subList(startIndex, endIndex); // Return the sublist for the current page
+        outputList(playerMeta.getOwnedPage(filter, page, ANIMALS_PER_PAGE), playerMeta, player, searchedName,
+                entityType, page, totalPages);
     }
 
     /**
      * Outputs the list of animals to the player.
      *
      * @param animalList The list of animals to output.
+     * @param playerMeta The PlayerMeta data of the animals' owner.
      * @param player     The player who executed the command.
      */
-    private void outputList(List<SavedAnimal> animalList, Player player, String searchedName, String entityType, int page, int totalPages) {
+    private void outputList(List<SavedAnimal> animalList, PlayerMeta playerMeta, Player player, String searchedName,
+                            String entityType, int page, int totalPages) {
         if (animalList.isEmpty()) {
             player.sendMessage(config.LIST_NO_MATCH);
             return;
@@ -236,10 +207,10 @@ public class ListSubCommand implements SubCommandHandler {
 
             // Despite doing the check earlier, a NPE is still triggered on the name variable in some instances.
             if(name == null || location == null) continue;
-            name = validateName(animal, name);
+            name = validateName(playerMeta, animal, name);
 
             message = message.appendNewline()
-                    .append(Component.text("[" + animal.getIndex() + "] ", NamedTextColor.GOLD))
+                    .append(Component.text("[" + playerMeta.getIndexOf(animal) + "] ", NamedTextColor.GOLD))
                     .append(Component.text(Uuid + "... ", NamedTextColor.GRAY))
                     .append(Component.text(name, NamedTextColor.GREEN)).appendNewline()
                     .append(Component.text("     Type: " + type, NamedTextColor.BLUE))
@@ -273,15 +244,14 @@ public class ListSubCommand implements SubCommandHandler {
     }
 
     /**
-     * Asynchronously fetches a player's playermeta by converting username to UUID using Bukkit's OfflinePlayer object.
+     * Asynchronously fetches a player's playermeta by converting username to UUID through the player name cache.
      *
      * @param playerName The name of the player whose playermeta is being fetched
      * @return The playermeta instance if the player has played before
      */
     private CompletableFuture<PlayerMeta> getPlayerMeta(String playerName) {
-        return CompletableFuture.supplyAsync(() -> {
-            OfflinePlayer player = Bukkit.getOfflinePlayer(playerName);
-            if (!player.hasPlayedBefore()) {
+        return plugin.getPlayerNameCache().getOfflinePlayer(playerName).thenApply(player -> {
+            if (player == null) {
                 return null; // Player does not exist
             }
             return critterCache.getPlayerMeta(player.getUniqueId());
@@ -292,13 +262,13 @@ public class ListSubCommand implements SubCommandHandler {
      Due to a bug early on in the life of CritterGuard, some names have the stringified version of a
      TextComponent object. This method converts them back.
      */
-    private String validateName(SavedAnimal savedAnimal, String name) {
+    private String validateName(PlayerMeta playerMeta, SavedAnimal savedAnimal, String name) {
         Pattern pattern = Pattern.compile("content=\"(.*?)\"");
         Matcher matcher = pattern.matcher(name);
 
         if(matcher.find()) {
             String fixedName = matcher.group(1);
-            savedAnimal.setEntityName(fixedName);
+            playerMeta.renameOwnedAnimal(savedAnimal, fixedName);
             if(savedAnimal instanceof SavedMount savedMount) {
                 plugin.getSavedMountTable().save(savedMount);
             } else {
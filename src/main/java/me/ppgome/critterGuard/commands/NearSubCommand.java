@@ -0,0 +1,248 @@
+package me.ppgome.critterGuard.commands;
+
+import me.ppgome.critterGuard.CGConfig;
+import me.ppgome.critterGuard.CritterCache;
+import me.ppgome.critterGuard.CritterGuard;
+import me.ppgome.critterGuard.database.SavedAnimal;
+import me.ppgome.critterGuard.utility.CritterUtils;
+import me.ppgome.critterGuard.utility.MessageUtils;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.format.NamedTextColor;
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.command.CommandSender;
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.Player;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * This class represents the command used to list every protected critter around the player.
+ */
+public class NearSubCommand implements SubCommandHandler {
+
+    /**
+     * The most critters listed at once. Anything further away is summarized in one line.
+     */
+    private static final int MAX_LISTED = 20;
+
+    /**
+     * The instance of the plugin.
+     */
+    private CritterGuard plugin;
+    /**
+     * The instance of the configuration class.
+     */
+    private CGConfig config;
+    /**
+     * The instance of the plugin's cache.
+     */
+    private CritterCache critterCache;
+
+    /**
+     * Constructor for NearSubCommand.
+     * Initializes the command with the plugin instance.
+     *
+     * @param plugin The instance of the CritterGuard plugin.
+     */
+    public NearSubCommand(CritterGuard plugin) {
+        this.plugin = plugin;
+        this.config = plugin.getCGConfig();
+        this.critterCache = plugin.getCritterCache();
+    }
+
+    // /critter near [radius]
+    @Override
+    public void execute(CommandSender sender, String[] args) {
+        if(!(sender instanceof Player player)) return;
+        if(args.length > 1) {
+            player.sendMessage(getUsage());
+            return;
+        }
+
+        int radius = config.NEAR_DEFAULT_RADIUS;
+        if(args.length == 1) {
+            if(!args[0].matches("\\d+")) {
+                player.sendMessage(getUsage());
+                return;
+            }
+            try {
+                radius = Integer.parseInt(args[0]);
+            } catch (NumberFormatException e) {
+                // Too many digits for an int, so it's past the maximum radius anyway
+                radius = Integer.MAX_VALUE;
+            }
+        }
+        int searchRadius = Math.max(1, Math.min(radius, config.NEAR_MAX_RADIUS));
+
+        List<NearbyCritter> nearbyCritters = findNearby(player.getLocation(), searchRadius);
+        if(nearbyCritters.isEmpty()) {
+            player.sendMessage(config.NEAR_NONE_FOUND);
+            return;
+        }
+        List<NearbyCritter> listed = nearbyCritters.subList(0, Math.min(nearbyCritters.size(), MAX_LISTED));
+        HashMap<UUID, CompletableFuture<String>> ownerNames = new HashMap<>();
+        for(NearbyCritter nearbyCritter : listed) {
+            UUID ownerUuid = nearbyCritter.savedAnimal().getEntityOwnerUuid();
+            ownerNames.computeIfAbsent(ownerUuid, uuid -> plugin.getPlayerNameCache().getName(uuid)
+                    .exceptionally(throwable -> null));
+        }
+        CompletableFuture.allOf(ownerNames.values().toArray(new CompletableFuture[0]))
+                .thenRun(() -> Bukkit.getScheduler().runTask(plugin, () ->
+                        outputList(player, listed, nearbyCritters.size(), ownerNames, searchRadius)));
+    }
+
+    /**
+     * Finds every saved critter within a horizontal radius of a location, closest first.
+     * Loaded critters are placed by where they are now, and unloaded ones by where they were last seen.
+     *
+     * @param center The centre of the search
+     * @param radius The radius in blocks
+     * @return The critters found
+     */
+    private List<NearbyCritter> findNearby(Location center, int radius) {
+        HashMap<UUID, NearbyCritter> found = new HashMap<>();
+        World world = center.getWorld();
+
+        // Loaded critters may have wandered away from the location they were indexed at
+        // getNearbyEntities takes half-extents, so the world's full height reaches every Y from any centre
+        double verticalReach = world.getMaxHeight() - world.getMinHeight();
+        for(Entity entity : world.getNearbyEntities(center, radius, verticalReach, radius)) {
+            if(!CritterUtils.canHandleTaming(entity)) continue;
+            SavedAnimal savedAnimal = getSavedAnimal(entity.getUniqueId());
+            if(savedAnimal == null) continue;
+            Location location = entity.getLocation();
+            double distance = horizontalDistance(center, location.x(), location.z());
+            if(distance <= radius) found.put(entity.getUniqueId(), new NearbyCritter(savedAnimal, location, distance));
+        }
+
+        critterCache.forEachCritterInRadius(center, radius, savedAnimal -> {
+            UUID entityUuid = savedAnimal.getEntityUuid();
+            if(found.containsKey(entityUuid)) return;
+            // A loaded critter that wasn't found above is somewhere else now
+            if(Bukkit.getEntity(entityUuid) != null) return;
+            found.put(entityUuid, new NearbyCritter(savedAnimal, savedAnimal.getLastLocation(),
+                    horizontalDistance(center, savedAnimal.getLastSeenX(), savedAnimal.getLastSeenZ())));
+        });
+
+        List<NearbyCritter> nearbyCritters = new ArrayList<>(found.values());
+        nearbyCritters.sort(Comparator.comparingDouble(NearbyCritter::distance));
+        return nearbyCritters;
+    }
+
+    /**
+     * Outputs the list of nearby critters to the player.
+     *
+     * @param player The player who executed the command
+     * @param listed The critters to list, closest first
+     * @param found The total number of critters found
+     * @param ownerNames The names of the listed critters' owners, all of which have completed
+     * @param radius The radius that was searched
+     */
+    private void outputList(Player player, List<NearbyCritter> listed, int found,
+                            HashMap<UUID, CompletableFuture<String>> ownerNames, int radius) {
+        Component message = Component.text("----==== ", NamedTextColor.GRAY)
+                .append(Component.text("Critters within " + radius + " blocks", NamedTextColor.GOLD))
+                .append(Component.text(" ====----", NamedTextColor.GRAY))
+                .appendNewline();
+
+        for(NearbyCritter nearbyCritter : listed) {
+            SavedAnimal savedAnimal = nearbyCritter.savedAnimal();
+            String name = savedAnimal.getEntityName() != null ? savedAnimal.getEntityName() : "No name";
+            String ownerName = ownerNames.get(savedAnimal.getEntityOwnerUuid()).getNow(null);
+
+            message = message.appendNewline()
+                    .append(Component.text(Math.round(nearbyCritter.distance()) + "m ", NamedTextColor.GOLD))
+                    .append(Component.text(savedAnimal.getEntityType() + " ", NamedTextColor.BLUE))
+                    .append(Component.text(name, NamedTextColor.GREEN))
+                    .append(Component.text(" owned by ", NamedTextColor.GRAY))
+                    .append(Component.text(ownerName != null ? ownerName : "Unknown", NamedTextColor.YELLOW))
+                    .appendNewline()
+                    .append(Component.text("     "))
+                    .append(MessageUtils.locationBuilder(nearbyCritter.location(), NamedTextColor.RED));
+        }
+        if(found > listed.size()) {
+            message = message.appendNewline()
+                    .append(Component.text("...and " + (found - listed.size()) + " more further away.",
+                            NamedTextColor.GRAY));
+        }
+        player.sendMessage(message);
+    }
+
+    /**
+     * Fetches the saved mount or pet with the given UUID.
+     *
+     * @param entityUuid The UUID of the critter
+     * @return The saved critter, or null if it isn't saved
+     */
+    private SavedAnimal getSavedAnimal(UUID entityUuid) {
+        SavedAnimal savedAnimal = critterCache.getSavedMount(entityUuid);
+        return savedAnimal != null ? savedAnimal : critterCache.getSavedPet(entityUuid);
+    }
+
+    /**
+     * Returns the horizontal distance between a location and a point.
+     *
+     * @param center The location
+     * @param x The X coordinate of the point
+     * @param z The Z coordinate of the point
+     * @return The distance in blocks
+     */
+    private static double horizontalDistance(Location center, double x, double z) {
+        double dx = x - center.x();
+        double dz = z - center.z();
+        return Math.sqrt(dx * dx + dz * dz);
+    }
+
+    @Override
+    public List<String> tabComplete(CommandSender sender, String[] args) {
+        if(args.length == 1) {
+            return List.of(String.valueOf(config.NEAR_DEFAULT_RADIUS), String.valueOf(config.NEAR_MAX_RADIUS));
+        }
+        return List.of();
+    }
+
+    @Override
+    public String getCommandName() {
+        return "near";
+    }
+
+    @Override
+    public String getDescription() {
+        return "List every protected critter around you and who owns it.";
+    }
+
+    @Override
+    public Component getUsage() {
+        return MessageUtils.miniMessageDeserialize(config.PREFIX + " " + getStringUsage());
+    }
+
+    @Override
+    public String getStringUsage() {
+        return "<red>Usage: /critter near [radius]</red>";
+    }
+
+    @Override
+    public String getPermission() {
+        return "critterguard.near";
+    }
+
+    @Override
+    public int getMinArgs() {
+        return 0;
+    }
+
+    //------------------------------------------------------------------------------------------------------------------
+
+    /**
+     * A saved critter found by a search.
+     *
+     * @param savedAnimal The saved critter
+     * @param location Where the critter is, or was last seen
+     * @param distance The horizontal distance from the player, in blocks
+     */
+    private record NearbyCritter(SavedAnimal savedAnimal, Location location, double distance) {}
+
+}
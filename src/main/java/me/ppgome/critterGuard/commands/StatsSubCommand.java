@@ -0,0 +1,131 @@
+package me.ppgome.critterGuard.commands;
+
+import me.ppgome.critterGuard.CGConfig;
+import me.ppgome.critterGuard.CritterGuard;
+import me.ppgome.critterGuard.metrics.EventMetrics;
+import me.ppgome.critterGuard.utility.MessageUtils;
+import net.kyori.adventure.text.Component;
+import org.bukkit.Bukkit;
+import org.bukkit.command.CommandSender;
+
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * This class represents the command used to view, dump and reset the event handler latency metrics.
+ */
+public class StatsSubCommand implements SubCommandHandler {
+
+    /**
+     * The instance of the plugin.
+     */
+    private CritterGuard plugin;
+    /**
+     * The instance of the configuration class.
+     */
+    private CGConfig config;
+    /**
+     * The instance of the event metrics registry.
+     */
+    private EventMetrics eventMetrics;
+
+    /**
+     * Constructor for StatsSubCommand.
+     * Initializes the command with the plugin instance.
+     *
+     * @param plugin The instance of the CritterGuard plugin.
+     */
+    public StatsSubCommand(CritterGuard plugin) {
+        this.plugin = plugin;
+        this.config = plugin.getCGConfig();
+        this.eventMetrics = plugin.getEventMetrics();
+    }
+
+    // /critter stats [dump/reset]
+    @Override
+    public void execute(CommandSender sender, String[] args) {
+        if(args.length > 1) {
+            sender.sendMessage(getUsage());
+            return;
+        }
+        if(!eventMetrics.isEnabled()) {
+            sender.sendMessage(MessageUtils.miniMessageDeserialize(config.PREFIX
+                    + " <red>Event metrics are disabled. Turn on toggles.enableEventMetrics in the config.</red>"));
+            return;
+        }
+
+        if(args.length == 0) {
+            List<String> lines = eventMetrics.summary();
+            if(lines.isEmpty()) {
+                sender.sendMessage(MessageUtils.miniMessageDeserialize(config.PREFIX
+                        + " <gray>No events have been recorded yet.</gray>"));
+                return;
+            }
+            sender.sendMessage(MessageUtils.miniMessageDeserialize(config.PREFIX
+                    + " <green>Event handler latency (microseconds):</green>"));
+            for(String line : lines) {
+                sender.sendMessage(MessageUtils.miniMessageDeserialize(line));
+            }
+        } else if(args[0].equalsIgnoreCase("dump")) {
+            // The file is written off the main thread, but the result is sent back on it
+            Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
+                Component message;
+                try {
+                    Path file = eventMetrics.dump();
+                    message = MessageUtils.miniMessageDeserialize(config.PREFIX
+                            + " <green>Event metrics written to " + file + "</green>");
+                } catch(Exception e) {
+                    plugin.logError("Failed to dump event metrics\n" + e.getMessage());
+                    message = MessageUtils.miniMessageDeserialize(config.PREFIX
+                            + " <red>Failed to write the event metrics. Check the console for details.</red>");
+                }
+                Component result = message;
+                Bukkit.getScheduler().runTask(plugin, () -> sender.sendMessage(result));
+            });
+        } else if(args[0].equalsIgnoreCase("reset")) {
+            eventMetrics.reset();
+            sender.sendMessage(MessageUtils.miniMessageDeserialize(config.PREFIX
+                    + " <green>Event metrics reset!</green>"));
+        } else {
+            sender.sendMessage(getUsage());
+        }
+    }
+
+    @Override
+    public List<String> tabComplete(CommandSender sender, String[] args) {
+        if(args.length == 1) {
+            return List.of("dump", "reset");
+        }
+        return List.of();
+    }
+
+    @Override
+    public String getCommandName() {
+        return "stats";
+    }
+
+    @Override
+    public String getDescription() {
+        return "View, dump or reset the latency of CritterGuard's event handlers.";
+    }
+
+    @Override
+    public Component getUsage() {
+        return MessageUtils.miniMessageDeserialize(config.PREFIX + " " + getStringUsage());
+    }
+
+    @Override
+    public String getStringUsage() {
+        return "<red>Usage: /critter stats [dump/reset]</red>";
+    }
+
+    @Override
+    public String getPermission() {
+        return "critterguard.stats";
+    }
+
+    @Override
+    public int getMinArgs() {
+        return 0;
+    }
+}
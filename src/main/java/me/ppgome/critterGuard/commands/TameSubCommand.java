@@ -8,7 +8,6 @@ import me.ppgome.critterGuard.utility.MessageUtils;
 import me.ppgome.critterGuard.utility.PlaceholderParser;
 import net.kyori.adventure.text.Component;
 import org.bukkit.Bukkit;
-import org.bukkit.OfflinePlayer;
 import org.bukkit.command.CommandSender;
 import org.bukkit.scheduler.BukkitTask;
 
@@ -49,11 +48,8 @@ public class TameSubCommand implements SubCommandHandler {
     public void execute(CommandSender sender, String[] args) {
         if(!(sender instanceof org.bukkit.entity.Player player)) return;
 
-        Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
-            String targetPlayerName = args[0];
-            OfflinePlayer targetPlayer = Bukkit.getOfflinePlayer(targetPlayerName);
-
-            if(targetPlayer.hasPlayedBefore()) {
+        plugin.getPlayerNameCache().getOfflinePlayer(args[0]).thenAccept(targetPlayer -> {
+            if(targetPlayer != null) {
                 Bukkit.getScheduler().runTask(plugin, () -> {
                     UUID senderUuid = player.getUniqueId();
                     TameAction tameAction = new TameAction(player, targetPlayer, plugin);
@@ -77,7 +73,7 @@ public class TameSubCommand implements SubCommandHandler {
 
                 });
             } else {
-                player.sendMessage(config.ACCESS_NO_PLAYER);
+                player.sendMessage(PlaceholderParser.of(config.ACCESS_NO_PLAYER).player(args[0]).parse());
             }
         });
 
@@ -1,10 +1,12 @@
 package me.ppgome.critterGuard.commands.tpcommands;
 
 import me.ppgome.critterGuard.*;
+import me.ppgome.critterGuard.commands.CommandUtils;
 import me.ppgome.critterGuard.commands.SubCommandHandler;
 import me.ppgome.critterGuard.utility.MessageUtils;
 import me.ppgome.critterGuard.utility.PlaceholderParser;
 import net.kyori.adventure.text.Component;
+import org.bukkit.Bukkit;
 import org.bukkit.command.CommandSender;
 import org.bukkit.entity.Entity;
 import org.bukkit.entity.Player;
@@ -58,6 +60,13 @@ public class TPHereSubCommand implements SubCommandHandler {
         if(args.length == 1) {
             return null; // Let Bukkit handle player name completions
         }
+        if(args.length == 2) {
+            // Only online players can be completed without looking their UUID up
+            Player targetPlayer = Bukkit.getPlayerExact(args[0]);
+            if(targetPlayer == null) return List.of();
+            return CommandUtils.completeIdentifier(args[1],
+                    plugin.getCritterCache().getPlayerMeta(targetPlayer.getUniqueId()));
+        }
         return List.of();
     }
 
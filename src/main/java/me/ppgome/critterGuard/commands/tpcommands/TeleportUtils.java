@@ -7,7 +7,6 @@ import me.ppgome.critterGuard.database.SavedAnimal;
 import me.ppgome.critterGuard.utility.PlaceholderParser;
 import org.bukkit.Bukkit;
 import org.bukkit.Chunk;
-import org.bukkit.OfflinePlayer;
 import org.bukkit.entity.Entity;
 import org.bukkit.entity.Player;
 
@@ -28,9 +27,8 @@ public class TeleportUtils {
             CritterGuard plugin,
             TeleportAction action) {
 
-        Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
-            OfflinePlayer targetPlayer = Bukkit.getOfflinePlayer(targetPlayerName);
-            if (!targetPlayer.hasPlayedBefore() && !targetPlayer.isOnline()) {
+        plugin.getPlayerNameCache().getOfflinePlayer(targetPlayerName).thenAccept(targetPlayer -> {
+            if (targetPlayer == null) {
                 sender.sendMessage(PlaceholderParser
                         .of(plugin.getCGConfig().TELEPORT_NO_PLAYER)
                         .player(targetPlayerName)
@@ -0,0 +1,45 @@
+package me.ppgome.critterGuard.database;
+
+/**
+ * The level of access a player has to a saved mount, from least to most.
+ */
+public enum AccessLevel {
+
+    /**
+     * The player has no access to the mount.
+     */
+    NONE,
+    /**
+     * The player can ride the mount as a passenger.
+     */
+    PASSENGER,
+    /**
+     * The player can ride and control the mount.
+     */
+    FULL,
+    /**
+     * The player owns the mount.
+     */
+    OWNER;
+
+    //------------------------------------------------------------------------------------------------------------------
+
+    /**
+     * Checks if this level allows the player to ride the mount, as a passenger or otherwise.
+     *
+     * @return True if it does, false if not
+     */
+    public boolean canRide() {
+        return this != NONE;
+    }
+
+    /**
+     * Checks if this level allows the player to control the mount.
+     *
+     * @return True if it does, false if not
+     */
+    public boolean canControl() {
+        return this == FULL || this == OWNER;
+    }
+
+}
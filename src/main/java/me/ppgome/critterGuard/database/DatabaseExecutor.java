@@ -0,0 +1,143 @@
+package me.ppgome.critterGuard.database;
+
+import me.ppgome.critterGuard.CGConfig;
+import me.ppgome.critterGuard.CritterGuard;
+import org.bukkit.Bukkit;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The threads the plugin uses to talk to its database.
+ *
+ * All writes go through a single writer thread so they're serialized against the database file. Reads use their
+ * own small pool, or share the writer if no read threads are configured. Both queues are bounded; when one is full
+ * the configured backpressure policy decides whether the task is dropped or the submitting thread waits for room.
+ * A task is never run on the thread that submitted it, as that would put database work on the server thread and
+ * break the single writer.
+ */
+public class DatabaseExecutor {
+
+    /**
+     * The instance of the plugin.
+     */
+    private final CritterGuard plugin;
+    /**
+     * The single-threaded executor that every database write runs on.
+     */
+    private final ThreadPoolExecutor writeExecutor;
+    /**
+     * The executor database reads run on. This is the write executor if no read threads are configured.
+     */
+    private final ThreadPoolExecutor readExecutor;
+    /**
+     * How long to wait for queued tasks to finish when the plugin is disabled, in seconds.
+     */
+    private final long shutdownTimeout;
+
+    //------------------------------------------------------------------------------------------------------------------
+
+    /**
+     * Creates the writer thread and, if configured, the read pool.
+     *
+     * @param plugin The instance of the plugin
+     */
+    public DatabaseExecutor(CritterGuard plugin) {
+        this.plugin = plugin;
+        CGConfig config = plugin.getCGConfig();
+        int queueDepth = Math.max(1, config.DATABASE_QUEUE_DEPTH);
+        this.shutdownTimeout = Math.max(1L, config.DATABASE_SHUTDOWN_TIMEOUT);
+
+        this.writeExecutor = createExecutor(1, queueDepth, "CritterGuard-DB-Writer", config.DATABASE_BACKPRESSURE);
+        if(config.DATABASE_READ_THREADS > 0) {
+            this.readExecutor = createExecutor(config.DATABASE_READ_THREADS, queueDepth, "CritterGuard-DB-Reader",
+                    config.DATABASE_BACKPRESSURE);
+        } else {
+            this.readExecutor = writeExecutor;
+        }
+    }
+
+    //------------------------------------------------------------------------------------------------------------------
+
+    /**
+     * Stops accepting new tasks and waits for everything already queued to finish.
+     * Anything submitted after this is dropped.
+     */
+    public void shutdown() {
+        readExecutor.shutdown();
+        writeExecutor.shutdown();
+        try {
+            if(!writeExecutor.awaitTermination(shutdownTimeout, TimeUnit.SECONDS)) {
+                plugin.logError("Timed out waiting for " + writeExecutor.getQueue().size()
+                        + " database writes to finish. Some changes may not have been saved.");
+            }
+            if(!readExecutor.awaitTermination(shutdownTimeout, TimeUnit.SECONDS)) {
+                readExecutor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            plugin.logError("Interrupted while waiting for database tasks to finish.");
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Builds a fixed-size executor with a bounded queue and the configured backpressure policy.
+     *
+     * @param threads The number of threads in the pool
+     * @param queueDepth The maximum number of tasks waiting in the queue
+     * @param name The name given to the pool's threads
+     * @param backpressure The policy applied when the queue is full, either "DROP" or "BLOCK"
+     * @return The executor
+     */
+    private ThreadPoolExecutor createExecutor(int threads, int queueDepth, String name, String backpressure) {
+        AtomicInteger threadCount = new AtomicInteger();
+        ThreadFactory threadFactory = runnable -> {
+            Thread thread = new Thread(runnable, threads == 1 ? name : name + "-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+
+        boolean block = "BLOCK".equalsIgnoreCase(backpressure);
+        RejectedExecutionHandler rejectionHandler = (runnable, executor) -> {
+            if(executor.isShutdown()) {
+                plugin.logError("Dropped a database task submitted to " + name + " after it was shut down.");
+                return;
+            }
+            // Only threads other than the server thread may wait, so a full queue never stalls the tick
+            if(block && !Bukkit.isPrimaryThread()) {
+                try {
+                    executor.getQueue().put(runnable);
+                    return;
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            // Writes stay in the write-behind queue, so a dropped flush is picked up by the next one
+            plugin.logError("Dropped a database task, as the " + name + " queue is full.");
+        };
+
+        return new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueDepth), threadFactory, rejectionHandler);
+    }
+
+    //------------------------------------------------------------------------------------------------------------------
+
+    /**
+     * Returns the executor that database writes run on.
+     *
+     * @return the write executor
+     */
+    public Executor getWriteExecutor() {
+        return writeExecutor;
+    }
+
+    /**
+     * Returns the executor that database reads run on.
+     *
+     * @return the read executor
+     */
+    public Executor getReadExecutor() {
+        return readExecutor;
+    }
+
+}
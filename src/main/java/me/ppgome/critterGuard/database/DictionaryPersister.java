@@ -0,0 +1,69 @@
+package me.ppgome.critterGuard.database;
+
+import com.j256.ormlite.field.FieldType;
+import com.j256.ormlite.field.SqlType;
+import com.j256.ormlite.field.types.BaseDataType;
+import com.j256.ormlite.support.DatabaseResults;
+
+import java.sql.SQLException;
+
+/**
+ * Stores a string that repeats across many rows, such as an entity type or a world name, as its code in the
+ * {@link ValueDictionary}, so each row holds a 4 byte integer instead of the string.
+ */
+public class DictionaryPersister extends BaseDataType {
+
+    /**
+     * The instance ORMLite uses for every field.
+     */
+    private static final DictionaryPersister SINGLETON = new DictionaryPersister();
+
+    //------------------------------------------------------------------------------------------------------------------
+
+    /**
+     * Initializes the persister.
+     */
+    private DictionaryPersister() {
+        super(SqlType.INTEGER);
+    }
+
+    /**
+     * Returns the instance of the persister. Called by ORMLite.
+     *
+     * @return The persister
+     */
+    public static DictionaryPersister getSingleton() {
+        return SINGLETON;
+    }
+
+    //------------------------------------------------------------------------------------------------------------------
+
+    @Override
+    public Object parseDefaultString(FieldType fieldType, String defaultStr) throws SQLException {
+        return javaToSqlArg(fieldType, defaultStr);
+    }
+
+    @Override
+    public Object resultToSqlArg(FieldType fieldType, DatabaseResults results, int columnPos) throws SQLException {
+        int code = results.getInt(columnPos);
+        return results.wasNull(columnPos) ? null : code;
+    }
+
+    @Override
+    public Object javaToSqlArg(FieldType fieldType, Object javaObject) throws SQLException {
+        return ValueDictionary.get().getCode((String) javaObject);
+    }
+
+    @Override
+    public Object sqlArgToJava(FieldType fieldType, Object sqlArg, int columnPos) throws SQLException {
+        String value = ValueDictionary.get().getValue((Integer) sqlArg);
+        if(value == null) throw new SQLException(fieldType.getColumnName() + " holds unknown code " + sqlArg);
+        return value;
+    }
+
+    @Override
+    public Class<?> getPrimaryClass() {
+        return String.class;
+    }
+
+}
@@ -0,0 +1,96 @@
+package me.ppgome.critterGuard.database;
+
+import com.j256.ormlite.dao.Dao;
+import com.j256.ormlite.db.DatabaseType;
+import com.j256.ormlite.support.ConnectionSource;
+import com.j256.ormlite.support.DatabaseConnection;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * A snapshot of a critter's last known location.
+ * These are written on their own so a location change only updates the four last-seen columns of a row.
+ *
+ * @param entityUuid The UUID of the critter
+ * @param x The X value of the critter's last known location
+ * @param y The Y value of the critter's last known location
+ * @param z The Z value of the critter's last known location
+ * @param world The name of the world the critter was last seen in
+ */
+public record LastSeenUpdate(UUID entityUuid, double x, double y, double z, String world) {
+
+    /**
+     * Takes a snapshot of a critter's current last known location.
+     *
+     * @param savedAnimal The critter
+     * @return The snapshot
+     */
+    public static LastSeenUpdate of(SavedAnimal savedAnimal) {
+        return new LastSeenUpdate(savedAnimal.entityUuid, savedAnimal.lastSeenX, savedAnimal.lastSeenY,
+                savedAnimal.lastSeenZ, savedAnimal.lastSeenWorld);
+    }
+
+    /**
+     * The most updates sent to the database in one JDBC batch.
+     */
+    private static final int MAX_BATCH = 500;
+
+    /**
+     * Writes a list of location snapshots to a critter table using one prepared UPDATE statement.
+     * The statement is prepared once and the rows are sent to the database as JDBC batches, rather than ORMLite
+     * compiling a new statement for every row. The world and UUID are bound in their stored forms, a dictionary code
+     * and 16 bytes.
+     * This does not open its own transaction, so callers should run it inside a batch.
+     *
+     * @param dao The DAO of the table being updated
+     * @param updates The snapshots being written
+     * @throws SQLException If the update fails
+     */
+    static <T extends SavedAnimal> void writeAll(Dao<T, UUID> dao, List<LastSeenUpdate> updates) throws SQLException {
+        if(updates.isEmpty()) return;
+
+        ConnectionSource connectionSource = dao.getConnectionSource();
+        DatabaseType databaseType = connectionSource.getDatabaseType();
+        StringBuilder sql = new StringBuilder("UPDATE ");
+        databaseType.appendEscapedEntityName(sql, dao.getTableName());
+        sql.append(" SET ");
+        String[] columns = {"lastSeenX", "lastSeenY", "lastSeenZ", "lastSeenWorld"};
+        for(int i = 0; i < columns.length; i++) {
+            if(i > 0) sql.append(", ");
+            databaseType.appendEscapedEntityName(sql, columns[i]);
+            sql.append(" = ?");
+        }
+        sql.append(" WHERE ");
+        databaseType.appendEscapedEntityName(sql, "entityUuid");
+        sql.append(" = ?");
+
+        // Inside a batch this is the connection the batch's transaction is running on
+        ValueDictionary dictionary = ValueDictionary.get();
+        DatabaseConnection connection = connectionSource.getReadWriteConnection(dao.getTableName());
+        try(PreparedStatement statement = connection.getUnderlyingConnection().prepareStatement(sql.toString())) {
+            int batched = 0;
+            for(LastSeenUpdate update : updates) {
+                statement.setDouble(1, update.x());
+                statement.setDouble(2, update.y());
+                statement.setDouble(3, update.z());
+                Integer worldCode = dictionary.getCode(update.world());
+                if(worldCode == null) statement.setNull(4, Types.INTEGER);
+                else statement.setInt(4, worldCode);
+                statement.setBytes(5, UuidBytesPersister.toBytes(update.entityUuid()));
+                statement.addBatch();
+                if(++batched == MAX_BATCH) {
+                    statement.executeBatch();
+                    batched = 0;
+                }
+            }
+            if(batched > 0) statement.executeBatch();
+        } finally {
+            connectionSource.releaseConnection(connection);
+        }
+    }
+
+}
@@ -0,0 +1,405 @@
+package me.ppgome.critterGuard.database;
+
+import com.j256.ormlite.db.DatabaseType;
+import me.ppgome.critterGuard.CritterGuard;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+
+/**
+ * Copies the rows of a table from before the compact schema into its replacement, converting UUIDs into 16 bytes and
+ * repeated strings into dictionary codes on the way.
+ *
+ * Rows are read in key order a chunk at a time and each chunk is committed along with how far the copy has got, so a
+ * large table never has to fit in one transaction, and a copy that's interrupted carries on where it stopped on the
+ * next start. Rows already in the new table are skipped, as are rows whose UUIDs can't be parsed. The old table is
+ * left as it was.
+ */
+class LegacyTableCopy implements SchemaMigrator.Step {
+
+    /**
+     * The table that records how far each copy has got.
+     */
+    private static final String PROGRESS_TABLE = "critterguard_migration_progress";
+    /**
+     * How many rows are copied in each transaction.
+     */
+    private static final int CHUNK_SIZE = 1000;
+
+    /**
+     * The instance of the plugin.
+     */
+    private final CritterGuard plugin;
+    /**
+     * The dialect of the database being migrated.
+     */
+    private final DatabaseType databaseType;
+    /**
+     * The name of the table being copied from.
+     */
+    private final String legacyTable;
+    /**
+     * The name of the table being copied into.
+     */
+    private final String newTable;
+    /**
+     * The column of the old table the rows are read in order of.
+     */
+    private final String keyColumn;
+    /**
+     * Whether the key column holds numbers rather than strings.
+     */
+    private final boolean numericKey;
+    /**
+     * The columns copied into the new table.
+     */
+    private final Column[] columns;
+    /**
+     * The columns that identify a row that's already been copied.
+     */
+    private final String[] uniqueColumns;
+
+    //------------------------------------------------------------------------------------------------------------------
+
+    /**
+     * Initializes the copy.
+     *
+     * @param plugin The instance of the plugin
+     * @param databaseType The dialect of the database being migrated
+     * @param legacyTable The name of the table being copied from
+     * @param newTable The name of the table being copied into
+     * @param keyColumn The column of the old table the rows are read in order of
+     * @param numericKey Whether the key column holds numbers rather than strings
+     * @param uniqueColumns The columns that identify a row that's already been copied
+     * @param columns The columns copied into the new table
+     */
+    LegacyTableCopy(CritterGuard plugin, DatabaseType databaseType, String legacyTable, String newTable,
+                    String keyColumn, boolean numericKey, String[] uniqueColumns, Column... columns) {
+        this.plugin = plugin;
+        this.databaseType = databaseType;
+        this.legacyTable = legacyTable;
+        this.newTable = newTable;
+        this.keyColumn = keyColumn;
+        this.numericKey = numericKey;
+        this.uniqueColumns = uniqueColumns;
+        this.columns = columns;
+    }
+
+    //------------------------------------------------------------------------------------------------------------------
+
+    /**
+     * Copies every row not copied yet. Commits after each chunk, so it must run on a connection with auto-commit off.
+     *
+     * @param connection The connection the migration is running on
+     * @throws SQLException If a chunk can't be copied. Chunks committed before it are kept.
+     */
+    @Override
+    public void apply(Connection connection) throws SQLException {
+        if(!tableExists(connection, legacyTable)) return;
+        try(Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE IF NOT EXISTS " + PROGRESS_TABLE
+                    + " (name VARCHAR(64) NOT NULL PRIMARY KEY, lastKey VARCHAR(64) NOT NULL)");
+        }
+        connection.commit();
+
+        ValueDictionary dictionary = ValueDictionary.get();
+        String lastKey = readProgress(connection);
+        int copied = 0;
+        int skipped = 0;
+        try(PreparedStatement firstChunk = connection.prepareStatement(buildSelect(false));
+            PreparedStatement nextChunk = connection.prepareStatement(buildSelect(true));
+            PreparedStatement exists = connection.prepareStatement(buildExists());
+            PreparedStatement insert = connection.prepareStatement(buildInsert())) {
+            while(true) {
+                PreparedStatement select = lastKey == null ? firstChunk : nextChunk;
+                if(lastKey != null) {
+                    if(numericKey) select.setLong(1, Long.parseLong(lastKey));
+                    else select.setString(1, lastKey);
+                }
+
+                int rows = 0;
+                try(ResultSet resultSet = select.executeQuery()) {
+                    while(resultSet.next()) {
+                        rows++;
+                        lastKey = resultSet.getString(keyColumn);
+                        Object[] values = readRow(resultSet, dictionary, connection);
+                        if(values == null) {
+                            skipped++;
+                        } else if(!isCopied(exists, values)) {
+                            for(int i = 0; i < columns.length; i++) {
+                                bind(insert, i + 1, columns[i], values[i]);
+                            }
+                            // Inserted straight away, so a duplicate later in the same chunk finds it
+                            insert.executeUpdate();
+                            copied++;
+                        }
+                    }
+                }
+                if(rows == 0) break;
+                saveProgress(connection, lastKey);
+                connection.commit();
+            }
+        } catch (SQLException e) {
+            connection.rollback();
+            // Any codes added in the chunk were rolled back with it
+            dictionary.reload();
+            throw e;
+        }
+
+        plugin.logInfo("Copied " + copied + " rows from " + legacyTable + " to " + newTable + "."
+                + (skipped > 0 ? " Skipped " + skipped + " rows with a missing or malformed UUID." : ""));
+    }
+
+    //------------------------------------------------------------------------------------------------------------------
+
+    /**
+     * Reads the columns of a row of the old table and converts them into their stored forms.
+     *
+     * @param resultSet The row
+     * @param dictionary The dictionary the codes come from
+     * @param connection The connection new codes are written on
+     * @return The converted values, or null if the row has a missing or malformed UUID
+     * @throws SQLException If the row can't be read
+     */
+    private Object[] readRow(ResultSet resultSet, ValueDictionary dictionary, Connection connection)
+            throws SQLException {
+        Object[] values = new Object[columns.length];
+        for(int i = 0; i < columns.length; i++) {
+            Column column = columns[i];
+            values[i] = switch(column.kind()) {
+                case UUID -> {
+                    String uuid = resultSet.getString(column.name());
+                    try {
+                        yield UuidBytesPersister.toBytes(uuid);
+                    } catch (IllegalArgumentException e) {
+                        yield null;
+                    }
+                }
+                case DICTIONARY -> dictionary.getCode(connection, resultSet.getString(column.name()));
+                case TEXT -> resultSet.getString(column.name());
+                case DOUBLE -> resultSet.getDouble(column.name());
+                case BOOLEAN -> resultSet.getBoolean(column.name());
+                case DATE -> resultSet.getTimestamp(column.name());
+            };
+            if(column.kind() == Kind.UUID && values[i] == null) return null;
+        }
+        return values;
+    }
+
+    /**
+     * Checks whether a row is already in the new table, such as from a copy that was interrupted.
+     *
+     * @param exists The prepared lookup
+     * @param values The converted values of the row
+     * @return True if the row is already there
+     * @throws SQLException If the lookup fails
+     */
+    private boolean isCopied(PreparedStatement exists, Object[] values) throws SQLException {
+        for(int i = 0; i < uniqueColumns.length; i++) {
+            for(int c = 0; c < columns.length; c++) {
+                if(columns[c].name().equals(uniqueColumns[i])) bind(exists, i + 1, columns[c], values[c]);
+            }
+        }
+        try(ResultSet resultSet = exists.executeQuery()) {
+            return resultSet.next();
+        }
+    }
+
+    /**
+     * Binds a converted value to a statement parameter.
+     *
+     * @param statement The statement
+     * @param index The parameter index
+     * @param column The column the value belongs to
+     * @param value The converted value
+     * @throws SQLException If the value can't be bound
+     */
+    private void bind(PreparedStatement statement, int index, Column column, Object value) throws SQLException {
+        if(value == null) {
+            statement.setNull(index, switch(column.kind()) {
+                case UUID -> Types.BINARY;
+                case DICTIONARY -> Types.INTEGER;
+                case TEXT -> Types.VARCHAR;
+                case DOUBLE -> Types.DOUBLE;
+                case BOOLEAN -> Types.BOOLEAN;
+                case DATE -> Types.TIMESTAMP;
+            });
+            return;
+        }
+        switch(column.kind()) {
+            case UUID -> statement.setBytes(index, (byte[]) value);
+            case DICTIONARY -> statement.setInt(index, (Integer) value);
+            case TEXT -> statement.setString(index, (String) value);
+            case DOUBLE -> statement.setDouble(index, (Double) value);
+            case BOOLEAN -> statement.setBoolean(index, (Boolean) value);
+            case DATE -> statement.setTimestamp(index, (Timestamp) value);
+        }
+    }
+
+    //------------------------------------------------------------------------------------------------------------------
+
+    /**
+     * Builds the query that reads the next chunk of the old table.
+     *
+     * @param afterKey Whether the chunk starts after a key rather than at the start of the table
+     * @return The SQL
+     */
+    private String buildSelect(boolean afterKey) {
+        StringBuilder sql = new StringBuilder("SELECT ");
+        databaseType.appendEscapedEntityName(sql, keyColumn);
+        for(Column column : columns) {
+            sql.append(", ");
+            databaseType.appendEscapedEntityName(sql, column.name());
+        }
+        sql.append(" FROM ");
+        databaseType.appendEscapedEntityName(sql, legacyTable);
+        if(afterKey) {
+            sql.append(" WHERE ");
+            databaseType.appendEscapedEntityName(sql, keyColumn);
+            sql.append(" > ?");
+        }
+        sql.append(" ORDER BY ");
+        databaseType.appendEscapedEntityName(sql, keyColumn);
+        sql.append(" LIMIT ").append(CHUNK_SIZE);
+        return sql.toString();
+    }
+
+    /**
+     * Builds the query that checks whether a row is already in the new table.
+     *
+     * @return The SQL
+     */
+    private String buildExists() {
+        StringBuilder sql = new StringBuilder("SELECT 1 FROM ");
+        databaseType.appendEscapedEntityName(sql, newTable);
+        for(int i = 0; i < uniqueColumns.length; i++) {
+            sql.append(i == 0 ? " WHERE " : " AND ");
+            databaseType.appendEscapedEntityName(sql, uniqueColumns[i]);
+            sql.append(" = ?");
+        }
+        return sql.toString();
+    }
+
+    /**
+     * Builds the statement that inserts a row into the new table.
+     *
+     * @return The SQL
+     */
+    private String buildInsert() {
+        StringBuilder sql = new StringBuilder("INSERT INTO ");
+        databaseType.appendEscapedEntityName(sql, newTable);
+        sql.append(" (");
+        for(int i = 0; i < columns.length; i++) {
+            if(i > 0) sql.append(", ");
+            databaseType.appendEscapedEntityName(sql, columns[i].name());
+        }
+        sql.append(") VALUES (").append("?, ".repeat(columns.length - 1)).append("?)");
+        return sql.toString();
+    }
+
+    /**
+     * Checks whether a table exists. Databases differ in the case they report names in, so both are tried.
+     *
+     * @param connection The connection to check on
+     * @param table The name of the table
+     * @return True if the table exists
+     * @throws SQLException If the database can't be checked
+     */
+    private boolean tableExists(Connection connection, String table) throws SQLException {
+        DatabaseMetaData metaData = connection.getMetaData();
+        for(String name : new String[] {table, table.toUpperCase()}) {
+            try(ResultSet resultSet = metaData.getTables(connection.getCatalog(), null, name, null)) {
+                if(resultSet.next()) return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Reads the key of the last row copied so far.
+     *
+     * @param connection The connection to read on
+     * @return The key, or null if nothing has been copied yet
+     * @throws SQLException If the progress can't be read
+     */
+    private String readProgress(Connection connection) throws SQLException {
+        try(PreparedStatement statement = connection.prepareStatement("SELECT lastKey FROM " + PROGRESS_TABLE
+                + " WHERE name = ?")) {
+            statement.setString(1, legacyTable);
+            try(ResultSet resultSet = statement.executeQuery()) {
+                return resultSet.next() ? resultSet.getString(1) : null;
+            }
+        }
+    }
+
+    /**
+     * Records the key of the last row copied so far. Committed along with the chunk it ends.
+     *
+     * @param connection The connection to write on
+     * @param lastKey The key
+     * @throws SQLException If the progress can't be written
+     */
+    private void saveProgress(Connection connection, String lastKey) throws SQLException {
+        try(PreparedStatement update = connection.prepareStatement("UPDATE " + PROGRESS_TABLE
+                + " SET lastKey = ? WHERE name = ?")) {
+            update.setString(1, lastKey);
+            update.setString(2, legacyTable);
+            if(update.executeUpdate() > 0) return;
+        }
+        try(PreparedStatement insert = connection.prepareStatement("INSERT INTO " + PROGRESS_TABLE
+                + " (name, lastKey) VALUES (?, ?)")) {
+            insert.setString(1, legacyTable);
+            insert.setString(2, lastKey);
+            insert.executeUpdate();
+        }
+    }
+
+    //------------------------------------------------------------------------------------------------------------------
+
+    /**
+     * How a column is converted on its way into the new table.
+     */
+    enum Kind {
+
+        /**
+         * A UUID string, stored as 16 bytes. A row where it's missing or malformed is skipped.
+         */
+        UUID,
+        /**
+         * A repeated string, stored as its dictionary code.
+         */
+        DICTIONARY,
+        /**
+         * A string, copied as it is.
+         */
+        TEXT,
+        /**
+         * A number, copied as it is.
+         */
+        DOUBLE,
+        /**
+         * A flag, copied as it is.
+         */
+        BOOLEAN,
+        /**
+         * A date, copied as it is.
+         */
+        DATE
+
+    }
+
+    /**
+     * A column copied into the new table. It has the same name in both tables.
+     *
+     * @param name The name of the column
+     * @param kind How the column is converted
+     */
+    record Column(String name, Kind kind) {}
+
+}
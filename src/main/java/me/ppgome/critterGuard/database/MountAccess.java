@@ -1,12 +1,16 @@
 package me.ppgome.critterGuard.database;
 
 import com.j256.ormlite.field.DatabaseField;
+import com.j256.ormlite.table.DatabaseTable;
+
+import java.util.UUID;
 
 /**
  * Represents access permissions for mounts in the plugin.
  * This class is used to store information about which players have access to which mounts,
  * and whether they have full access or not.
  */
+@DatabaseTable(tableName = "critter_access")
 public class MountAccess {
 
     /**
@@ -18,14 +22,14 @@ public class MountAccess {
     /**
      * The UUID of the mount this access record pertains to.
      */
-    @DatabaseField(canBeNull = false)
-    private String mountUuid;
+    @DatabaseField(canBeNull = false, persisterClass = UuidBytesPersister.class, columnDefinition = "BINARY(16)")
+    private UUID mountUuid;
 
     /**
      * The UUID of the player who has access to the mount.
      */
-    @DatabaseField(canBeNull = false)
-    private String playerUuid;
+    @DatabaseField(canBeNull = false, persisterClass = UuidBytesPersister.class, columnDefinition = "BINARY(16)")
+    private UUID playerUuid;
 
     /**
      * Indicates whether the player has full access to the mount.
@@ -45,7 +49,7 @@ public class MountAccess {
      * @param mountUuid the UUID of the mount.
      * @param playerUuid the UUID of the player.
      */
-    public MountAccess(String mountUuid, String playerUuid) {
+    public MountAccess(UUID mountUuid, UUID playerUuid) {
         this.mountUuid = mountUuid;
         this.playerUuid = playerUuid;
     }
@@ -72,7 +76,7 @@ public class MountAccess {
      * Returns the UUID of the mount this access record pertains to.
      * @return the UUID of the mount.
      */
-    public String getMountUuid() {
+    public UUID getMountUuid() {
         return mountUuid;
     }
 
@@ -80,7 +84,7 @@ public class MountAccess {
      * Sets the UUID of the mount this access record pertains to.
      * @param mountUuid the UUID of the mount to set.
      */
-    public void setMountUuid(String mountUuid) {
+    public void setMountUuid(UUID mountUuid) {
         this.mountUuid = mountUuid;
     }
 
@@ -88,7 +92,7 @@ public class MountAccess {
      * Returns the UUID of the player who has access to the mount.
      * @return the UUID of the player.
      */
-    public String getPlayerUuid() {
+    public UUID getPlayerUuid() {
         return playerUuid;
     }
 
@@ -96,7 +100,7 @@ public class MountAccess {
      * Sets the UUID of the player who has access to the mount.
      * @param playerUuid the UUID of the player to set.
      */
-    public void setPlayerUuid(String playerUuid) {
+    public void setPlayerUuid(UUID playerUuid) {
         this.playerUuid = playerUuid;
     }
 
@@ -3,9 +3,8 @@ package me.ppgome.critterGuard.database;
 import com.j256.ormlite.dao.Dao;
 import me.ppgome.critterGuard.CritterGuard;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.concurrent.CompletableFuture;
+import java.sql.SQLException;
+import java.util.function.Consumer;
 
 /**
  * The MountAccessTable class is responsible for managing mount access data in the database.
@@ -17,6 +16,10 @@ public class MountAccessTable {
      * The Dao instance for MountAccess, used to perform database operations.
      */
     private Dao<MountAccess, Integer> mountAccessDao;
+    /**
+     * The queue that batches this table's writes.
+     */
+    private WriteBehindQueue writeQueue;
     /**
      * The instance of the MountGuard plugin, used to access plugin methods and properties.
      */
@@ -29,64 +32,49 @@ public class MountAccessTable {
     public MountAccessTable(CritterGuard plugin) {
         this.plugin = plugin;
         this.mountAccessDao = plugin.getMountAccessDao();
+        this.writeQueue = plugin.getWriteBehindQueue();
     }
 
     /**
-     * Fetches the mount access for a specific player asynchronously.
-     * @return a CompletableFuture containing an ArrayList of MountAccess objects for the player.
+     * Streams every mount access record in the database to a consumer, one row at a time.
+     * The table is never held in memory as a whole, and rows are mapped without ORMLite's reflection.
+     * Runs on the calling thread.
+     *
+     * @param consumer The consumer each record is passed to
+     * @return The number of rows read
+     * @throws SQLException If the table can't be read
      */
-    public CompletableFuture<List<MountAccess>> getAllMountAccess() {
-        return CompletableFuture.supplyAsync(() -> {
-            try {
-                return mountAccessDao.queryForAll();
-            } catch (Exception e) {
-                plugin.logError("Failed to fetch all mount access records: \n" + e.getMessage());
-                return new ArrayList<MountAccess>();
-            }
-        }).exceptionally(e -> {
-            plugin.logError("Failed to fetch all mount access records: \n" + e.getMessage());
-            return new ArrayList<>();
-        });
+    public int forEachMountAccess(Consumer<MountAccess> consumer) throws SQLException {
+        return RowMapper.MOUNT_ACCESS.forEach(mountAccessDao, consumer);
     }
 
     /**
-     * Deletes a mount access relationship from the database asynchronously.
+     * Queues a mount access relationship to be deleted from the database.
      * @param mountAccess the MountAccess object to be deleted.
      */
     public void delete(MountAccess mountAccess) {
-        CompletableFuture.runAsync(() -> {
-            try {
-                mountAccessDao.delete(mountAccess);
-            } catch (Exception e) {
-                plugin.getLogger().severe("Failed to delete mount access for user: " + mountAccess.getPlayerUuid()
+        writeQueue.enqueue(getQueueKey(mountAccess), mountAccess, () -> mountAccessDao.delete(mountAccess),
+                "Failed to delete mount access for user: " + mountAccess.getPlayerUuid()
                         + " on mount: " + mountAccess.getMountUuid());
-                e.printStackTrace();
-            }
-        }).exceptionally(e -> {
-            plugin.getLogger().severe("Failed to delete mount access for user: " + mountAccess.getPlayerUuid()
-                    + " on mount: " + mountAccess.getMountUuid());
-            e.printStackTrace();
-            return null;
-        });
     }
 
     /**
-     * Saves a new or updated mount access relationship to the database asynchronously.
+     * Queues a new or updated mount access relationship to be saved to the database.
      * @param mountAccess the MountAccess object to be saved.
      */
     public void save(MountAccess mountAccess) {
-        CompletableFuture.runAsync(() -> {
-            try {
-                mountAccessDao.createOrUpdate(mountAccess);
-            } catch (Exception e) {
-                plugin.logError("Failed to save mount access for " + mountAccess.getPlayerUuid() + " on " +
-                        mountAccess.getMountUuid() + ":\n" + e.getMessage());
-            }
-        }).exceptionally(e -> {
-            plugin.logError("Failed to save mount access for " + mountAccess.getPlayerUuid() + " on " +
-                    mountAccess.getMountUuid() + ":\n" + e.getMessage());
-            return null;
-        });
+        writeQueue.enqueue(getQueueKey(mountAccess), mountAccess, () -> mountAccessDao.createOrUpdate(mountAccess),
+                "Failed to save mount access for " + mountAccess.getPlayerUuid() + " on " +
+                        mountAccess.getMountUuid() + ":");
+    }
+
+    /**
+     * Builds the key used to coalesce queued writes for a mount access relationship.
+     * @param mountAccess the MountAccess object being written.
+     * @return the relationship's key in the write queue.
+     */
+    private String getQueueKey(MountAccess mountAccess) {
+        return "access:" + mountAccess.getMountUuid() + ":" + mountAccess.getPlayerUuid();
     }
 
 }
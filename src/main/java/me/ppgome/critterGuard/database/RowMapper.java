@@ -0,0 +1,266 @@
+package me.ppgome.critterGuard.database;
+
+import com.j256.ormlite.dao.Dao;
+import com.j256.ormlite.db.DatabaseType;
+import com.j256.ormlite.support.ConnectionSource;
+import com.j256.ormlite.support.DatabaseConnection;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.Date;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Reads every row of a table straight into entities, for the bulk loads made while the plugin starts.
+ *
+ * ORMLite maps each row by looking up a converter for every field and setting it through reflection, which at hundreds
+ * of thousands of rows costs more than reading the rows themselves. The mappers here read each column by position and
+ * set the fields directly, and UUIDs are built from their stored bytes without going through a string. ORMLite is
+ * still used to create the tables and for every write, so the columns read here must match the entity annotations.
+ *
+ * @param <T> The entity the rows are mapped to
+ */
+public abstract class RowMapper<T> {
+
+    /**
+     * How many rows the driver is asked to fetch at a time.
+     */
+    private static final int FETCH_SIZE = 1000;
+    /**
+     * The columns shared by saved mounts and saved pets, in the order the mappers read them.
+     * Declared before the mappers, as they read it while being created.
+     */
+    private static final String[] CRITTER_COLUMNS = {"entityUuid", "entityName", "entityOwnerUuid", "entityType",
+            "color", "lastSeenX", "lastSeenY", "lastSeenZ", "lastSeenWorld"};
+
+    /**
+     * Maps rows of the saved mount table.
+     */
+    public static final RowMapper<SavedMount> SAVED_MOUNT = new SavedMountMapper();
+    /**
+     * Maps rows of the saved pet table.
+     */
+    public static final RowMapper<SavedPet> SAVED_PET = new SavedPetMapper();
+    /**
+     * Maps rows of the mount access table.
+     */
+    public static final RowMapper<MountAccess> MOUNT_ACCESS = new MountAccessMapper();
+
+    /**
+     * The columns read, in the order they're selected.
+     */
+    private final String[] columns;
+
+    //------------------------------------------------------------------------------------------------------------------
+
+    /**
+     * Initializes the mapper.
+     *
+     * @param columns The columns read, in the order they're selected
+     */
+    private RowMapper(String... columns) {
+        this.columns = columns;
+    }
+
+    //------------------------------------------------------------------------------------------------------------------
+
+    /**
+     * Streams every row of a table to a consumer, one at a time. Runs on the calling thread.
+     *
+     * @param dao The DAO of the table being read
+     * @param consumer The consumer each entity is passed to
+     * @return The number of rows read
+     * @throws SQLException If the table can't be read
+     */
+    public int forEach(Dao<T, ?> dao, Consumer<? super T> consumer) throws SQLException {
+        ConnectionSource connectionSource = dao.getConnectionSource();
+        String sql = buildSelect(connectionSource.getDatabaseType(), dao.getTableName());
+        ValueDictionary dictionary = ValueDictionary.get();
+
+        int rows = 0;
+        DatabaseConnection connection = connectionSource.getReadOnlyConnection(dao.getTableName());
+        try(PreparedStatement statement = connection.getUnderlyingConnection().prepareStatement(sql)) {
+            statement.setFetchSize(FETCH_SIZE);
+            try(ResultSet resultSet = statement.executeQuery()) {
+                while(resultSet.next()) {
+                    consumer.accept(map(resultSet, dictionary));
+                    rows++;
+                }
+            }
+        } finally {
+            connectionSource.releaseConnection(connection);
+        }
+        return rows;
+    }
+
+    /**
+     * Builds the entity for the row the result set is on.
+     *
+     * @param resultSet The result set, positioned on the row
+     * @param dictionary The dictionary coded columns are looked up in
+     * @return The entity
+     * @throws SQLException If a column can't be read
+     */
+    abstract T map(ResultSet resultSet, ValueDictionary dictionary) throws SQLException;
+
+    /**
+     * Builds the query that reads every row of a table.
+     *
+     * @param databaseType The dialect of the database
+     * @param table The name of the table
+     * @return The SQL
+     */
+    private String buildSelect(DatabaseType databaseType, String table) {
+        StringBuilder sql = new StringBuilder("SELECT ");
+        for(int i = 0; i < columns.length; i++) {
+            if(i > 0) sql.append(", ");
+            databaseType.appendEscapedEntityName(sql, columns[i]);
+        }
+        sql.append(" FROM ");
+        databaseType.appendEscapedEntityName(sql, table);
+        return sql.toString();
+    }
+
+    //------------------------------------------------------------------------------------------------------------------
+
+    /**
+     * Reads a column stored by {@link UuidBytesPersister}.
+     *
+     * @param resultSet The result set, positioned on the row
+     * @param column The position of the column
+     * @return The UUID
+     * @throws SQLException If the column doesn't hold a UUID
+     */
+    static UUID readUuid(ResultSet resultSet, int column) throws SQLException {
+        byte[] bytes = resultSet.getBytes(column);
+        if(bytes == null || bytes.length != 16) {
+            throw new SQLException("Column " + column + " doesn't hold a UUID");
+        }
+        return UuidBytesPersister.toUuid(bytes);
+    }
+
+    /**
+     * Reads a column stored by {@link DictionaryPersister}.
+     *
+     * @param resultSet The result set, positioned on the row
+     * @param column The position of the column
+     * @param dictionary The dictionary the code is looked up in
+     * @return The string, or null if the column is null
+     * @throws SQLException If the code is unknown
+     */
+    static String readValue(ResultSet resultSet, int column, ValueDictionary dictionary) throws SQLException {
+        int code = resultSet.getInt(column);
+        if(resultSet.wasNull()) return null;
+        String value = dictionary.getValue(code);
+        if(value == null) throw new SQLException("Column " + column + " holds unknown code " + code);
+        return value;
+    }
+
+    /**
+     * Reads the columns shared by saved mounts and saved pets, which come first in both of their queries.
+     *
+     * @param resultSet The result set, positioned on the row
+     * @param savedAnimal The critter the columns are read into
+     * @param dictionary The dictionary coded columns are looked up in
+     * @throws SQLException If a column can't be read
+     */
+    static void readCritter(ResultSet resultSet, SavedAnimal savedAnimal, ValueDictionary dictionary)
+            throws SQLException {
+        savedAnimal.entityUuid = readUuid(resultSet, 1);
+        savedAnimal.entityName = resultSet.getString(2);
+        savedAnimal.entityOwnerUuid = readUuid(resultSet, 3);
+        savedAnimal.entityType = readValue(resultSet, 4, dictionary);
+        savedAnimal.color = readValue(resultSet, 5, dictionary);
+        savedAnimal.lastSeenX = resultSet.getDouble(6);
+        savedAnimal.lastSeenY = resultSet.getDouble(7);
+        savedAnimal.lastSeenZ = resultSet.getDouble(8);
+        savedAnimal.lastSeenWorld = readValue(resultSet, 9, dictionary);
+    }
+
+    /**
+     * Adds columns after the ones shared by saved mounts and saved pets.
+     *
+     * @param columns The extra columns
+     * @return Every column, shared ones first
+     */
+    private static String[] critterColumns(String... columns) {
+        String[] all = new String[CRITTER_COLUMNS.length + columns.length];
+        System.arraycopy(CRITTER_COLUMNS, 0, all, 0, CRITTER_COLUMNS.length);
+        System.arraycopy(columns, 0, all, CRITTER_COLUMNS.length, columns.length);
+        return all;
+    }
+
+    //------------------------------------------------------------------------------------------------------------------
+
+    /**
+     * Maps rows of the saved mount table.
+     */
+    private static final class SavedMountMapper extends RowMapper<SavedMount> {
+
+        /**
+         * Initializes the mapper.
+         */
+        private SavedMountMapper() {
+            super(critterColumns("lockDate", "style"));
+        }
+
+        @Override
+        SavedMount map(ResultSet resultSet, ValueDictionary dictionary) throws SQLException {
+            SavedMount savedMount = new SavedMount();
+            readCritter(resultSet, savedMount, dictionary);
+            Timestamp lockDate = resultSet.getTimestamp(10);
+            savedMount.setLockDate(lockDate == null ? null : new Date(lockDate.getTime()));
+            savedMount.setStyle(readValue(resultSet, 11, dictionary));
+            return savedMount;
+        }
+
+    }
+
+    /**
+     * Maps rows of the saved pet table.
+     */
+    private static final class SavedPetMapper extends RowMapper<SavedPet> {
+
+        /**
+         * Initializes the mapper.
+         */
+        private SavedPetMapper() {
+            super(critterColumns("petSoundType"));
+        }
+
+        @Override
+        SavedPet map(ResultSet resultSet, ValueDictionary dictionary) throws SQLException {
+            SavedPet savedPet = new SavedPet();
+            readCritter(resultSet, savedPet, dictionary);
+            savedPet.setPetSoundType(resultSet.getString(10));
+            return savedPet;
+        }
+
+    }
+
+    /**
+     * Maps rows of the mount access table.
+     */
+    private static final class MountAccessMapper extends RowMapper<MountAccess> {
+
+        /**
+         * Initializes the mapper.
+         */
+        private MountAccessMapper() {
+            super("id", "mountUuid", "playerUuid", "fullAccess");
+        }
+
+        @Override
+        MountAccess map(ResultSet resultSet, ValueDictionary dictionary) throws SQLException {
+            MountAccess mountAccess = new MountAccess(readUuid(resultSet, 2), readUuid(resultSet, 3));
+            mountAccess.setId(resultSet.getInt(1));
+            mountAccess.setFullAccess(resultSet.getBoolean(4));
+            return mountAccess;
+        }
+
+    }
+
+}
@@ -1,6 +1,7 @@
 package me.ppgome.critterGuard.database;
 
 import com.j256.ormlite.field.DatabaseField;
+import me.ppgome.critterGuard.CritterChunkIndex;
 import org.bukkit.Bukkit;
 import org.bukkit.Location;
 
@@ -15,8 +16,9 @@ public class SavedAnimal {
     /**
      * The UUID of the mount, used as the primary key in the database.
      */
-    @DatabaseField(id = true, canBeNull = false)
-    String entityUuid;
+    @DatabaseField(id = true, canBeNull = false, persisterClass = UuidBytesPersister.class,
+            columnDefinition = "BINARY(16)")
+    UUID entityUuid;
 
     /**
      * The name of the mount.
@@ -27,19 +29,19 @@ public class SavedAnimal {
     /**
      * The UUID of the mount owner, used to identify who owns the mount.
      */
-    @DatabaseField(canBeNull = false)
-    String entityOwnerUuid;
+    @DatabaseField(canBeNull = false, persisterClass = UuidBytesPersister.class, columnDefinition = "BINARY(16)")
+    UUID entityOwnerUuid;
 
     /**
      * The type of the mount entity (e.g. "horse", "camel", etc.).
      */
-    @DatabaseField(canBeNull = false)
+    @DatabaseField(canBeNull = false, persisterClass = DictionaryPersister.class)
     String entityType; // Store as EntityType.name()
 
     /**
      * The color of the entity, applicable for horses, llamas, dogs, cats, and parrots (e.g., "CHESTNUT", "BROWN", etc.).
      */
-    @DatabaseField
+    @DatabaseField(persisterClass = DictionaryPersister.class)
     String color;
 
     /**
@@ -63,14 +65,9 @@ public class SavedAnimal {
     /**
      * The last world the critter was known to be in.
      */
-    @DatabaseField
+    @DatabaseField(persisterClass = DictionaryPersister.class)
     String lastSeenWorld;
 
-    /**
-     * The numeric index of the entity, used for sorting or ordering purposes.
-     */
-    int index;
-
     //------------------------------------------------------------------------------------------------------------------
 
     /**
@@ -80,7 +77,7 @@ public class SavedAnimal {
      * @return True if they are, false if not
      */
     public boolean isOwner(UUID playerUuid) {
-        return entityOwnerUuid.equals(playerUuid.toString());
+        return entityOwnerUuid.equals(playerUuid);
     }
 
     /**
@@ -89,16 +86,7 @@ public class SavedAnimal {
      * @return the UUID of the critter
      */
     public UUID getEntityUuid() {
-        return UUID.fromString(entityUuid);
-    }
-
-    /**
-     * Sets the UUID of the critter.
-     * This is used to uniquely identify the critter in the database.
-     * @param mountUuid the UUID of the critter
-     */
-    public void setEntityUuid(String mountUuid) {
-        this.entityUuid = mountUuid;
+        return entityUuid;
     }
 
     /**
@@ -125,16 +113,7 @@ public class SavedAnimal {
      * @return the UUID of the critter owner
      */
     public UUID getEntityOwnerUuid() {
-        return UUID.fromString(entityOwnerUuid);
-    }
-
-    /**
-     * Sets the UUID of the critter's owner.
-     * This is used to identify who owns the critter.
-     * @param critterOwnerUuid the UUID of the critter owner
-     */
-    public void setEntityOwnerUuid(String critterOwnerUuid) {
-        this.entityOwnerUuid = critterOwnerUuid;
+        return entityOwnerUuid;
     }
 
     /**
@@ -171,22 +150,6 @@ public class SavedAnimal {
         this.color = color;
     }
 
-    /**
-     * Gets the index of the critter.
-     * @return the index of the critter
-     */
-    public int getIndex() {
-        return index;
-    }
-
-    /**
-     * Sets the index of the critter.
-     * @param index the index to set for the critter
-     */
-    public void setIndex(int index) {
-        this.index = index;
-    }
-
     /**
      * Sets the last known location of the critter.
      *
@@ -199,6 +162,17 @@ public class SavedAnimal {
         this.lastSeenWorld = location.getWorld().getName();
     }
 
+    /**
+     * Checks if a location is the same as the critter's last known location.
+     *
+     * @param location The location being checked
+     * @return True if the critter hasn't moved from its last known location, false if it has
+     */
+    public boolean isAtLastLocation(Location location) {
+        return location.x() == lastSeenX && location.y() == lastSeenY && location.z() == lastSeenZ
+                && location.getWorld().getName().equals(lastSeenWorld);
+    }
+
     /**
      * Returns the last known location of the critter.
      * @return the last known location of the critter
@@ -207,4 +181,36 @@ public class SavedAnimal {
         return new Location(Bukkit.getWorld(this.lastSeenWorld), this.lastSeenX, this.lastSeenY, this.lastSeenZ);
     }
 
+    /**
+     * Returns the X value of the critter's last known location.
+     * @return the X value of the critter's last known location
+     */
+    public double getLastSeenX() {
+        return lastSeenX;
+    }
+
+    /**
+     * Returns the Z value of the critter's last known location.
+     * @return the Z value of the critter's last known location
+     */
+    public double getLastSeenZ() {
+        return lastSeenZ;
+    }
+
+    /**
+     * Returns the name of the last world the critter was known to be in.
+     * @return the world name, or null if the critter has never been seen
+     */
+    public String getLastSeenWorld() {
+        return lastSeenWorld;
+    }
+
+    /**
+     * Returns the packed key of the chunk the critter was last known to be in.
+     * @return the chunk key
+     */
+    public long getLastSeenChunkKey() {
+        return CritterChunkIndex.chunkKey((int) Math.floor(lastSeenX) >> 4, (int) Math.floor(lastSeenZ) >> 4);
+    }
+
 }
@@ -1,6 +1,7 @@
 package me.ppgome.critterGuard.database;
 
 import com.j256.ormlite.field.DatabaseField;
+import com.j256.ormlite.table.DatabaseTable;
 
 import java.util.Date;
 import java.util.HashMap;
@@ -11,6 +12,7 @@ import java.util.UUID;
  * This class is used to store information about mounts such as horses, camels, llamas, donkeys, mules, and happy ghasts.
  * It includes fields for the mount's UUID, name, owner UUID and name, entity type, lock date, color, style, and access list.
  */
+@DatabaseTable(tableName = "critter_mounts")
 public class SavedMount extends SavedAnimal {
 
     /**
@@ -22,7 +24,7 @@ public class SavedMount extends SavedAnimal {
     /**
      * The style of the mount, applicable for horses (e.g., "BLACK_DOTS", "WHITE", etc.).
      */
-    @DatabaseField
+    @DatabaseField(persisterClass = DictionaryPersister.class)
     private String style;
 
     /**
@@ -47,7 +49,7 @@ public class SavedMount extends SavedAnimal {
      * @param color the color of the mount (e.g., "white", "brown", etc.)
      * @param style the style of the mount (e.g., "chestnut", "black", etc.)
      */
-    public SavedMount(String mountUuid, String mountName, String mountOwnerUuid, String mountOwnerName,
+    public SavedMount(UUID mountUuid, String mountName, UUID mountOwnerUuid, String mountOwnerName,
                       String entityType, String color, String style) {
         this.entityUuid = mountUuid;
         this.entityName = mountName;
@@ -67,7 +69,7 @@ public class SavedMount extends SavedAnimal {
      * @param entityType the type of the mount entity (e.g., "horse", "camel", etc.)
      * @param color the color of the mount (e.g., "white", "brown", etc.)
      */
-    public SavedMount(String mountUuid, String mountName, String mountOwnerUuid, String mountOwnerName,
+    public SavedMount(UUID mountUuid, String mountName, UUID mountOwnerUuid, String mountOwnerName,
                       String entityType, String color) {
         this.entityUuid = mountUuid;
         this.entityName = mountName;
@@ -86,7 +88,7 @@ public class SavedMount extends SavedAnimal {
      * @param mountOwnerName the name of the mount owner
      * @param entityType the type of the mount entity (e.g., "horse", "camel", etc.)
      */
-    public SavedMount(String mountUuid, String mountName, String mountOwnerUuid, String mountOwnerName,
+    public SavedMount(UUID mountUuid, String mountName, UUID mountOwnerUuid, String mountOwnerName,
                       String entityType) {
         this.entityUuid = mountUuid;
         this.entityName = mountName;
@@ -190,4 +192,17 @@ public class SavedMount extends SavedAnimal {
         return access != null && access.isFullAccess();
     }
 
+    /**
+     * Resolves the level of access the given UUID has to the mount.
+     * This does a single lookup, so prefer it over calling several of the access checks for the same player.
+     * @param uuid the UUID of the user to check
+     * @return the user's access level
+     */
+    public AccessLevel resolveAccess(UUID uuid) {
+        if(isOwner(uuid)) return AccessLevel.OWNER;
+        MountAccess access = this.accessList.get(uuid);
+        if(access == null) return AccessLevel.NONE;
+        return access.isFullAccess() ? AccessLevel.FULL : AccessLevel.PASSENGER;
+    }
+
 }
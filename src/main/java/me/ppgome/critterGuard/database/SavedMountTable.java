@@ -3,9 +3,10 @@ package me.ppgome.critterGuard.database;
 import com.j256.ormlite.dao.Dao;
 import me.ppgome.critterGuard.CritterGuard;
 
-import java.util.ArrayList;
+import java.sql.SQLException;
 import java.util.List;
-import java.util.concurrent.CompletableFuture;
+import java.util.UUID;
+import java.util.function.Consumer;
 
 /**
  * This class provides the methods for interacting with the SavedMount table in the database.
@@ -15,7 +16,11 @@ public class SavedMountTable {
     /**
      * The DAO for accessing saved mounts in the database.
      */
-    private Dao<SavedMount, String> savedMountDao;
+    private Dao<SavedMount, UUID> savedMountDao;
+    /**
+     * The queue that batches this table's writes.
+     */
+    private WriteBehindQueue writeQueue;
     /**
      * The instance of the plugin.
      */
@@ -31,65 +36,63 @@ public class SavedMountTable {
     public SavedMountTable(CritterGuard plugin) {
         this.plugin = plugin;
         this.savedMountDao = plugin.getSavedMountDao();
+        this.writeQueue = plugin.getWriteBehindQueue();
     }
 
     //------------------------------------------------------------------------------------------------------------------
 
     /**
-     * Retrieves all saved mounts from the database asynchronously.
+     * Streams every saved mount in the database to a consumer, one row at a time.
+     * The table is never held in memory as a whole, and rows are mapped without ORMLite's reflection.
+     * Runs on the calling thread.
      *
-     * @return a CompletableFuture that will contain a list of SavedMount objects.
+     * @param consumer The consumer each mount is passed to
+     * @return The number of rows read
+     * @throws SQLException If the table can't be read
      */
-    public CompletableFuture<List<SavedMount>> getAllSavedMounts() {
-        return CompletableFuture.supplyAsync(() -> {
-            try {
-                return savedMountDao.queryForAll();
-            } catch (Exception e) {
-                plugin.logError("Failed to fetch all saved mounts\n" + e.getMessage());
-                return null;
-            }
-        }).exceptionally(e -> {
-            plugin.logError("Failed to fetch all saved mounts\n" + e.getMessage());
-            return new ArrayList<>();
-        });
+    public int forEachSavedMount(Consumer<SavedMount> consumer) throws SQLException {
+        return RowMapper.SAVED_MOUNT.forEach(savedMountDao, consumer);
     }
 
     /**
-     * Deletes a saved mount record from the database.
+     * Queues a saved mount record to be deleted from the database.
      *
      * @param savedMount The saved mount being deleted
      */
     public void delete(SavedMount savedMount) {
-        CompletableFuture.runAsync(() -> {
-            try {
-                savedMountDao.delete(savedMount);
-            } catch (Exception e) {
-                plugin.getLogger().severe("Failed to delete mount: " + savedMount.getEntityName());
-                e.printStackTrace();
-            }
-        }).exceptionally(e -> {
-            plugin.getLogger().severe("Failed to delete mount: " + savedMount.getEntityName());
-            return null;
-        });
+        writeQueue.enqueue(getQueueKey(savedMount), savedMount, () -> savedMountDao.delete(savedMount),
+                "Failed to delete mount: " + savedMount.getEntityName());
     }
 
     /**
-     * Saves a new or updated mount to the database asynchronously.
+     * Queues a new or updated mount to be saved to the database.
      *
      * @param savedMount the SavedMount object to be saved.
      */
     public void save(SavedMount savedMount) {
-        CompletableFuture.runAsync(() -> {
-            try {
-                savedMountDao.createOrUpdate(savedMount);
-            } catch (Exception e) {
-                plugin.getLogger().severe("Failed to save mount: " + savedMount.getEntityName());
-                e.printStackTrace();
-            }
-        }).exceptionally(e -> {
-            plugin.getLogger().severe("Failed to save mount: " + savedMount.getEntityName());
-            return null;
-        });
+        writeQueue.enqueue(getQueueKey(savedMount), savedMount, () -> savedMountDao.createOrUpdate(savedMount),
+                "Failed to save mount: " + savedMount.getEntityName());
+    }
+
+    /**
+     * Writes the last known locations of mounts without rewriting the rest of their rows.
+     * Must be called from the database writer thread.
+     *
+     * @param updates The location snapshots being written
+     * @throws SQLException If the update fails
+     */
+    void updateLastSeen(List<LastSeenUpdate> updates) throws SQLException {
+        LastSeenUpdate.writeAll(savedMountDao, updates);
+    }
+
+    /**
+     * Builds the key used to coalesce queued writes for a mount.
+     *
+     * @param savedMount The mount being written
+     * @return The mount's key in the write queue
+     */
+    private String getQueueKey(SavedMount savedMount) {
+        return "mount:" + savedMount.entityUuid;
     }
 
 }
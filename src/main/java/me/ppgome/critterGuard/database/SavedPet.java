@@ -1,10 +1,14 @@
 package me.ppgome.critterGuard.database;
 
 import com.j256.ormlite.field.DatabaseField;
+import com.j256.ormlite.table.DatabaseTable;
+
+import java.util.UUID;
 
 /**
  * This class represents a Minecraft pet. These are defined as tameable mobs that can't be ridden.
  */
+@DatabaseTable(tableName = "critter_pets")
 public class SavedPet extends SavedAnimal {
 
     /**
@@ -30,7 +34,7 @@ public class SavedPet extends SavedAnimal {
      * @param petType the type of the pet (e.g., wolf, cat).
      * @param petSoundType the sound type of the pet (e.g., normal, undead).
      */
-    public SavedPet(String petUuid, String petName, String ownerUuid, String ownerName, String petType, String color,
+    public SavedPet(UUID petUuid, String petName, UUID ownerUuid, String ownerName, String petType, String color,
                     String petSoundType) {
         this.entityUuid = petUuid;
         this.entityName = petName;
@@ -49,11 +53,31 @@ public class SavedPet extends SavedAnimal {
      * @param ownerName the name of the owner.
      * @param petType the type of the pet (e.g., wolf, cat).
      */
-    public SavedPet(String petUuid, String petName, String ownerUuid, String ownerName, String petType, String color) {
+    public SavedPet(UUID petUuid, String petName, UUID ownerUuid, String ownerName, String petType, String color) {
         this.entityUuid = petUuid;
         this.entityName = petName;
         this.entityOwnerUuid = ownerUuid;
         this.entityType = petType;
         this.color = color;
     }
+
+    //------------------------------------------------------------------------------------------------------------------
+
+    /**
+     * Gets the sound type of the pet.
+     * This is applicable for wolves.
+     * @return the sound type of the pet (e.g., normal, undead), or null if it has none
+     */
+    public String getPetSoundType() {
+        return petSoundType;
+    }
+
+    /**
+     * Sets the sound type of the pet.
+     * This is applicable for wolves.
+     * @param petSoundType the sound type of the pet (e.g., normal, undead)
+     */
+    public void setPetSoundType(String petSoundType) {
+        this.petSoundType = petSoundType;
+    }
 }
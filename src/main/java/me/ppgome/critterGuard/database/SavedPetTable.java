@@ -6,10 +6,11 @@ import me.ppgome.critterGuard.CritterGuard;
 import org.bukkit.entity.Entity;
 
 import java.sql.SQLException;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
 
 /**
  * This class provides the methods for interacting with the SavedPet table in the database.
@@ -19,7 +20,15 @@ public class SavedPetTable {
     /**
      * The DAO for accessing saved pets in the database.
      */
-    private Dao<SavedPet, String> savedPetDao;
+    private Dao<SavedPet, UUID> savedPetDao;
+    /**
+     * The queue that batches this table's writes.
+     */
+    private WriteBehindQueue writeQueue;
+    /**
+     * The executor this table's reads run on.
+     */
+    private Executor readExecutor;
     /**
      * The instance of the plugin.
      */
@@ -35,6 +44,8 @@ public class SavedPetTable {
     public SavedPetTable(CritterGuard plugin) {
         this.plugin = plugin;
         this.savedPetDao = plugin.getSavedPetDao();
+        this.writeQueue = plugin.getWriteBehindQueue();
+        this.readExecutor = plugin.getDatabaseExecutor().getReadExecutor();
     }
 
     //------------------------------------------------------------------------------------------------------------------
@@ -45,7 +56,7 @@ public class SavedPetTable {
      * @param petUuid the UUID of the pet.
      * @return the SavedPet object, or null if not found.
      */
-    public CompletableFuture<SavedPet> getSavedPet(String petUuid) {
+    public CompletableFuture<SavedPet> getSavedPet(UUID petUuid) {
         return CompletableFuture.supplyAsync(() -> {
             try {
                 return savedPetDao.queryForId(petUuid);
@@ -53,87 +64,64 @@ public class SavedPetTable {
                 plugin.logError("Failed to retrieve pet with UUID: " + petUuid + "\n" + e.getMessage());
                 return null;
             }
-        }).exceptionally(e -> {
+        }, readExecutor).exceptionally(e -> {
             plugin.logError("Failed to retrieve pet with UUID: " + petUuid + "\n" + e.getMessage());
             return null;
         });
     }
 
     /**
-     * Retrieves all saved pets from the database.
+     * Streams every saved pet in the database to a consumer, one row at a time.
+     * The table is never held in memory as a whole, and rows are mapped without ORMLite's reflection.
+     * Runs on the calling thread.
      *
-     * @return A list of all saved pets.
+     * @param consumer The consumer each pet is passed to
+     * @return The number of rows read
+     * @throws SQLException If the table can't be read
      */
-    public CompletableFuture<List<SavedPet>> getAllSavedPets() {
-        return CompletableFuture.supplyAsync(() -> {
-            try {
-                return savedPetDao.queryForAll();
-            } catch (Exception e) {
-                plugin.logError("Failed to fetch all saved pets\n" + e.getMessage());
-                return null;
-            }
-        }).exceptionally(e -> {
-            plugin.logError("Failed to fetch all saved pets\n" + e.getMessage());
-            return new ArrayList<>();
-        });
-    }
-
-    public CompletableFuture<UUID> getOwner(UUID uuid) {
-        return CompletableFuture.supplyAsync(() -> {
-            try {
-                QueryBuilder<SavedPet, String> queryBuilder = savedPetDao.queryBuilder();
-                queryBuilder.selectColumns("entityOwnerUuid");
-                queryBuilder.where().eq("entityUuid", uuid);
-
-                SavedPet savedPet = savedPetDao.queryForFirst(queryBuilder.prepare());
-                if(savedPet != null) {
-                    return savedPet.getEntityOwnerUuid();
-                }
-                return null;
-            } catch (Exception e) {
-                plugin.logError("Failed to fetch owner of saved pet " + uuid +"\n" + e.getMessage());
-                return null;
-            }
-        }).exceptionally(e -> {
-            plugin.logError("Failed to fetch owner of saved pet " + uuid +"\n" + e.getMessage());
-            return null;
-        });
+    public int forEachSavedPet(Consumer<SavedPet> consumer) throws SQLException {
+        return RowMapper.SAVED_PET.forEach(savedPetDao, consumer);
     }
 
     /**
-     * Removes a saved pet's record from the database.
+     * Queues a saved pet's record to be removed from the database.
      *
      * @param savedPet The saved pet being removed
      */
     public void delete(SavedPet savedPet) {
-        CompletableFuture.runAsync(() -> {
-            try {
-                savedPetDao.delete(savedPet);
-            } catch (Exception e) {
-                plugin.logError("Failed to delete pet: " + savedPet.getEntityUuid() + "\n" + e.getMessage());
-            }
-        }).exceptionally(e -> {
-            plugin.logError("Failed to delete pet: " + savedPet.getEntityUuid() + "\n" + e.getMessage());
-            return null;
-        });
+        writeQueue.enqueue(getQueueKey(savedPet), savedPet, () -> savedPetDao.delete(savedPet),
+                "Failed to delete pet: " + savedPet.getEntityUuid());
     }
 
     /**
-     * Adds/updates a saved pet to the database.
+     * Queues a saved pet to be added/updated in the database.
      *
      * @param savedPet The saved pet being saved/updated
      */
     public void save(SavedPet savedPet) {
-        CompletableFuture.runAsync(() -> {
-            try {
-                savedPetDao.createOrUpdate(savedPet);
-            } catch (Exception e) {
-                plugin.logError("Failed to save pet: " + savedPet.getEntityUuid() + "\n" + e.getMessage());
-            }
-        }).exceptionally(e -> {
-            plugin.logError("Failed to save pet: " + savedPet.getEntityUuid() + "\n" + e.getMessage());
-            return null;
-        });
+        writeQueue.enqueue(getQueueKey(savedPet), savedPet, () -> savedPetDao.createOrUpdate(savedPet),
+                "Failed to save pet: " + savedPet.getEntityUuid());
+    }
+
+    /**
+     * Writes the last known locations of pets without rewriting the rest of their rows.
+     * Must be called from the database writer thread.
+     *
+     * @param updates The location snapshots being written
+     * @throws SQLException If the update fails
+     */
+    void updateLastSeen(List<LastSeenUpdate> updates) throws SQLException {
+        LastSeenUpdate.writeAll(savedPetDao, updates);
+    }
+
+    /**
+     * Builds the key used to coalesce queued writes for a pet.
+     *
+     * @param savedPet The pet being written
+     * @return The pet's key in the write queue
+     */
+    private String getQueueKey(SavedPet savedPet) {
+        return "pet:" + savedPet.entityUuid;
     }
 
 }
@@ -0,0 +1,279 @@
+package me.ppgome.critterGuard.database;
+
+import com.j256.ormlite.dao.Dao;
+import com.j256.ormlite.db.DatabaseType;
+import com.j256.ormlite.support.ConnectionSource;
+import com.j256.ormlite.support.DatabaseConnection;
+import me.ppgome.critterGuard.CritterGuard;
+import me.ppgome.critterGuard.database.LegacyTableCopy.Column;
+import me.ppgome.critterGuard.database.LegacyTableCopy.Kind;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Brings the database schema up to date, one numbered migration at a time.
+ *
+ * The version each database has reached is kept in its own table, so a migration only ever runs once per database.
+ * Migrations run against the live tables while the plugin starts, so nothing has to be exported and reloaded. On databases that support it, each migration runs in a transaction along with the row
+ * recording it, except for steps that copy whole tables, which commit as they go and pick up where they left off.
+ */
+public class SchemaMigrator {
+
+    /**
+     * The table that records which migrations have been applied.
+     */
+    private static final String VERSION_TABLE = "critterguard_schema";
+    /**
+     * The error code MySQL reports when an index with the same name already exists.
+     */
+    private static final int MYSQL_DUPLICATE_KEY_NAME = 1061;
+
+    /**
+     * The instance of the plugin.
+     */
+    private final CritterGuard plugin;
+    /**
+     * The connection source of the database being migrated.
+     */
+    private final ConnectionSource connectionSource;
+    /**
+     * The dialect of the database being migrated.
+     */
+    private final DatabaseType databaseType;
+    /**
+     * Every migration, in the order they're applied.
+     */
+    private final List<Migration> migrations = new ArrayList<>();
+
+    //------------------------------------------------------------------------------------------------------------------
+
+    /**
+     * Initializes the migrator with every migration the plugin knows about.
+     *
+     * @param plugin The instance of the plugin
+     * @param connectionSource The connection source of the database being migrated
+     */
+    public SchemaMigrator(CritterGuard plugin, ConnectionSource connectionSource) {
+        this.plugin = plugin;
+        this.connectionSource = connectionSource;
+        this.databaseType = connectionSource.getDatabaseType();
+
+        migrations.add(new Migration(1, "Index critter owners and mount access lookups",
+                createIndex(plugin.getMountAccessDao(), "mountUuid"),
+                createIndex(plugin.getMountAccessDao(), "playerUuid"),
+                createIndex(plugin.getSavedMountDao(), "entityOwnerUuid"),
+                createIndex(plugin.getSavedPetDao(), "entityOwnerUuid")));
+        // The DAOs now point at the compact tables, so their indexes are created here for databases already at 1
+        migrations.add(new Migration(2, "Copy critters and mount access into compact tables keyed by binary UUIDs",
+                copyLegacyTable("savedmount", plugin.getSavedMountDao(), "entityUuid", false,
+                        new String[] {"entityUuid"},
+                        new Column("entityUuid", Kind.UUID), new Column("entityName", Kind.TEXT),
+                        new Column("entityOwnerUuid", Kind.UUID), new Column("entityType", Kind.DICTIONARY),
+                        new Column("color", Kind.DICTIONARY), new Column("lastSeenX", Kind.DOUBLE),
+                        new Column("lastSeenY", Kind.DOUBLE), new Column("lastSeenZ", Kind.DOUBLE),
+                        new Column("lastSeenWorld", Kind.DICTIONARY), new Column("lockDate", Kind.DATE),
+                        new Column("style", Kind.DICTIONARY)),
+                copyLegacyTable("savedpet", plugin.getSavedPetDao(), "entityUuid", false,
+                        new String[] {"entityUuid"},
+                        new Column("entityUuid", Kind.UUID), new Column("entityName", Kind.TEXT),
+                        new Column("entityOwnerUuid", Kind.UUID), new Column("entityType", Kind.DICTIONARY),
+                        new Column("color", Kind.DICTIONARY), new Column("lastSeenX", Kind.DOUBLE),
+                        new Column("lastSeenY", Kind.DOUBLE), new Column("lastSeenZ", Kind.DOUBLE),
+                        new Column("lastSeenWorld", Kind.DICTIONARY), new Column("petSoundType", Kind.TEXT)),
+                // Access rows are given new ids, so a row already copied is recognised by its mount and player
+                copyLegacyTable("mountaccess", plugin.getMountAccessDao(), "id", true,
+                        new String[] {"mountUuid", "playerUuid"},
+                        new Column("mountUuid", Kind.UUID), new Column("playerUuid", Kind.UUID),
+                        new Column("fullAccess", Kind.BOOLEAN)),
+                createIndex(plugin.getMountAccessDao(), "mountUuid"),
+                createIndex(plugin.getMountAccessDao(), "playerUuid"),
+                createIndex(plugin.getSavedMountDao(), "entityOwnerUuid"),
+                createIndex(plugin.getSavedPetDao(), "entityOwnerUuid")));
+    }
+
+    //------------------------------------------------------------------------------------------------------------------
+
+    /**
+     * Applies every migration the database hasn't had yet.
+     * If one fails, the ones after it are skipped and will be tried again on the next start.
+     *
+     * @return True if the database is at the latest version, false if a migration failed or the database is newer
+     */
+    public boolean migrate() {
+        DatabaseConnection databaseConnection = null;
+        try {
+            databaseConnection = connectionSource.getReadWriteConnection(VERSION_TABLE);
+            Connection connection = databaseConnection.getUnderlyingConnection();
+            createVersionTable(connection);
+
+            int version = getVersion(connection);
+            int latest = migrations.getLast().version();
+            if(version > latest) {
+                plugin.logError("The database schema is at version " + version + ", but this version of CritterGuard "
+                        + "only knows up to version " + latest + ". Was it last used by a newer version of CritterGuard?");
+                return false;
+            }
+            for(Migration migration : migrations) {
+                if(migration.version() <= version) continue;
+                apply(connection, migration);
+                plugin.logInfo("Migrated the database to version " + migration.version() + ": "
+                        + migration.description());
+            }
+            return true;
+        } catch (SQLException e) {
+            plugin.logError("Failed to migrate the database schema. It will be tried again on the next start.\n"
+                    + e.getMessage());
+            return false;
+        } finally {
+            if(databaseConnection != null) {
+                try {
+                    connectionSource.releaseConnection(databaseConnection);
+                } catch (SQLException e) {
+                    plugin.logError("Failed to release the migration connection.\n" + e.getMessage());
+                }
+            }
+        }
+    }
+
+    //------------------------------------------------------------------------------------------------------------------
+
+    /**
+     * Runs a migration and records it, in one transaction where the database allows it.
+     *
+     * @param connection The connection the migration runs on
+     * @param migration The migration being applied
+     * @throws SQLException If the migration fails
+     */
+    private void apply(Connection connection, Migration migration) throws SQLException {
+        boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(false);
+        try {
+            for(Step step : migration.steps()) {
+                step.apply(connection);
+            }
+            try(PreparedStatement statement = connection.prepareStatement("INSERT INTO " + VERSION_TABLE
+                    + " (version, description, appliedAt) VALUES (?, ?, ?)")) {
+                statement.setInt(1, migration.version());
+                statement.setString(2, migration.description());
+                statement.setLong(3, System.currentTimeMillis());
+                statement.executeUpdate();
+            }
+            connection.commit();
+        } catch (SQLException e) {
+            connection.rollback();
+            throw e;
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+    }
+
+    /**
+     * Creates the table that records applied migrations, if it doesn't exist yet.
+     *
+     * @param connection The connection to create it on
+     * @throws SQLException If the table can't be created
+     */
+    private void createVersionTable(Connection connection) throws SQLException {
+        try(Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE IF NOT EXISTS " + VERSION_TABLE + " (version INTEGER NOT NULL PRIMARY KEY, "
+                    + "description VARCHAR(255) NOT NULL, appliedAt BIGINT NOT NULL)");
+        }
+    }
+
+    /**
+     * Reads the latest migration the database has had.
+     *
+     * @param connection The connection to read it on
+     * @return The version, or 0 if no migrations have been applied
+     * @throws SQLException If the version can't be read
+     */
+    private int getVersion(Connection connection) throws SQLException {
+        try(Statement statement = connection.createStatement();
+            ResultSet resultSet = statement.executeQuery("SELECT MAX(version) FROM " + VERSION_TABLE)) {
+            return resultSet.next() ? resultSet.getInt(1) : 0;
+        }
+    }
+
+    /**
+     * Builds a step that indexes a column of a table.
+     * An index that already exists is left alone, as it may have been created by an earlier attempt.
+     *
+     * @param dao The DAO of the table being indexed
+     * @param column The column being indexed
+     * @return The step
+     */
+    private Step createIndex(Dao<?, ?> dao, String column) {
+        String table = dao.getTableName();
+        String indexName = (table + "_" + column + "_idx").toLowerCase();
+        // MySQL has no IF NOT EXISTS for indexes, so a duplicate is caught by its error code instead
+        boolean isMySql = databaseType.getDatabaseName().toLowerCase().contains("mysql");
+        StringBuilder sql = new StringBuilder(isMySql ? "CREATE INDEX " : "CREATE INDEX IF NOT EXISTS ");
+        databaseType.appendEscapedEntityName(sql, indexName);
+        sql.append(" ON ");
+        databaseType.appendEscapedEntityName(sql, table);
+        sql.append(" (");
+        databaseType.appendEscapedEntityName(sql, column);
+        sql.append(")");
+
+        return connection -> {
+            try(Statement statement = connection.createStatement()) {
+                statement.execute(sql.toString());
+            } catch (SQLException e) {
+                if(!isMySql || e.getErrorCode() != MYSQL_DUPLICATE_KEY_NAME) throw e;
+            }
+        };
+    }
+
+    /**
+     * Builds a step that copies a table from before the compact schema into the table a DAO now uses.
+     *
+     * @param legacyTable The name of the table being copied from
+     * @param dao The DAO of the table being copied into
+     * @param keyColumn The column of the old table the rows are read in order of
+     * @param numericKey Whether the key column holds numbers rather than strings
+     * @param uniqueColumns The columns that identify a row that's already been copied
+     * @param columns The columns copied
+     * @return The step
+     */
+    private Step copyLegacyTable(String legacyTable, Dao<?, ?> dao, String keyColumn, boolean numericKey,
+                                 String[] uniqueColumns, Column... columns) {
+        return new LegacyTableCopy(plugin, databaseType, legacyTable, dao.getTableName(), keyColumn, numericKey,
+                uniqueColumns, columns);
+    }
+
+    //------------------------------------------------------------------------------------------------------------------
+
+    /**
+     * A single change made to the database by a migration.
+     * Most steps leave committing to the migration, but a step may commit partway through as long as running it again
+     * after a failure carries on safely.
+     */
+    @FunctionalInterface
+    interface Step {
+
+        /**
+         * Makes the change.
+         *
+         * @param connection The connection the migration is running on
+         * @throws SQLException If the change fails
+         */
+        void apply(Connection connection) throws SQLException;
+
+    }
+
+    /**
+     * A numbered change to the schema.
+     *
+     * @param version The schema version the database is at once this has been applied
+     * @param description What the migration does, shown in the console and kept in the version table
+     * @param steps The changes the migration makes, in order
+     */
+    record Migration(int version, String description, Step... steps) {}
+
+}
@@ -0,0 +1,52 @@
+package me.ppgome.critterGuard.database;
+
+import me.ppgome.critterGuard.CGConfig;
+
+import java.util.Properties;
+
+/**
+ * The pragmas applied to every SQLite connection when the high-throughput mode is turned on.
+ *
+ * By default SQLite uses a rollback journal and syncs the file on every commit. In WAL mode with synchronous set to
+ * NORMAL a commit only appends to the write-ahead log, so a write costs far less disk time, and readers no longer
+ * block while it's happening. The pragmas are handed to the SQLite driver as connection properties, so they're applied
+ * to each pooled connection as it's opened.
+ *
+ * @param journalMode The journal mode, such as WAL or DELETE
+ * @param synchronous How often SQLite waits for the disk, such as NORMAL or FULL
+ * @param mmapSize How many bytes of the file are memory mapped, or 0 to not map it
+ * @param cacheSizeKb How many kibibytes of pages each connection caches
+ * @param busyTimeout How long, in milliseconds, a connection waits for a lock held by another
+ */
+public record SqliteTuning(String journalMode, String synchronous, long mmapSize, int cacheSizeKb, int busyTimeout) {
+
+    /**
+     * Reads the tuning from the config.
+     *
+     * @param config The instance of the configuration class
+     * @return The tuning, or null if the high-throughput mode is turned off
+     */
+    public static SqliteTuning fromConfig(CGConfig config) {
+        if(!config.SQLITE_TUNED) return null;
+        return new SqliteTuning(config.SQLITE_JOURNAL_MODE, config.SQLITE_SYNCHRONOUS,
+                Math.max(0L, config.SQLITE_MMAP_SIZE_MB) * 1024L * 1024L, Math.max(0, config.SQLITE_CACHE_SIZE_KB),
+                Math.max(0, config.SQLITE_BUSY_TIMEOUT));
+    }
+
+    /**
+     * Converts the tuning into the connection properties the SQLite driver reads its pragmas from.
+     *
+     * @return The connection properties
+     */
+    public Properties toProperties() {
+        Properties properties = new Properties();
+        properties.setProperty("journal_mode", journalMode.toUpperCase());
+        properties.setProperty("synchronous", synchronous.toUpperCase());
+        properties.setProperty("mmap_size", String.valueOf(mmapSize));
+        // A negative cache size is read as kibibytes instead of pages
+        properties.setProperty("cache_size", String.valueOf(-cacheSizeKb));
+        properties.setProperty("busy_timeout", String.valueOf(busyTimeout));
+        return properties;
+    }
+
+}
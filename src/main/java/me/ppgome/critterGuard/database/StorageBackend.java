@@ -0,0 +1,292 @@
+package me.ppgome.critterGuard.database;
+
+import com.j256.ormlite.jdbc.DataSourceConnectionSource;
+import com.j256.ormlite.support.ConnectionSource;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import me.ppgome.critterGuard.CGConfig;
+import me.ppgome.critterGuard.CritterGuard;
+
+import javax.sql.DataSource;
+import java.io.File;
+import java.io.PrintWriter;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Statement;
+import java.util.logging.Logger;
+
+/**
+ * The database the plugin's tables are stored in, and the pool of connections used to reach it.
+ *
+ * SQLite and H2 keep the database in a file in the plugin's folder. H2 runs in MySQL mode, so a setup meant for a
+ * MySQL or MariaDB server can be tried out locally first. Whichever is used, only one running server may use the
+ * database, as the critters are only read from it at startup. Every backend is reached through a HikariCP pool
+ * sized to the database threads, so reads no longer wait on a single shared connection, and every statement is
+ * given the configured timeout. SQLite can optionally be tuned for throughput; see {@link SqliteTuning}.
+ */
+public class StorageBackend {
+
+    /**
+     * The instance of the plugin.
+     */
+    private final CritterGuard plugin;
+    /**
+     * The kind of database being used.
+     */
+    private final Type type;
+    /**
+     * The pool of connections to the database.
+     */
+    private final HikariDataSource dataSource;
+    /**
+     * The connection source the DAOs are created from.
+     */
+    private final ConnectionSource connectionSource;
+
+    //------------------------------------------------------------------------------------------------------------------
+
+    /**
+     * Opens the pool of connections to the database chosen in the config.
+     *
+     * @param plugin The instance of the plugin
+     * @throws SQLException If the database can't be reached
+     */
+    public StorageBackend(CritterGuard plugin) throws SQLException {
+        this.plugin = plugin;
+        CGConfig config = plugin.getCGConfig();
+        this.type = Type.fromConfig(config.STORAGE_TYPE);
+        if(!type.name().equalsIgnoreCase(config.STORAGE_TYPE)) {
+            plugin.logError("Unknown storage type \"" + config.STORAGE_TYPE + "\", using " + type + " instead.");
+        }
+
+        String jdbcUrl = buildUrl(config);
+        HikariConfig hikariConfig = new HikariConfig();
+        hikariConfig.setPoolName("CritterGuard-" + type.name());
+        hikariConfig.setDriverClassName(type.driverClass);
+        hikariConfig.setJdbcUrl(jdbcUrl);
+        if(type == Type.MYSQL) {
+            hikariConfig.setUsername(config.STORAGE_USERNAME);
+            hikariConfig.setPassword(config.STORAGE_PASSWORD);
+            // Reuse prepared statements on each connection and send batched updates as one statement
+            hikariConfig.addDataSourceProperty("cachePrepStmts", "true");
+            hikariConfig.addDataSourceProperty("prepStmtCacheSize", "64");
+            hikariConfig.addDataSourceProperty("rewriteBatchedStatements", "true");
+        }
+        SqliteTuning sqliteTuning = type == Type.SQLITE ? SqliteTuning.fromConfig(config) : null;
+        if(sqliteTuning != null) hikariConfig.setDataSourceProperties(sqliteTuning.toProperties());
+        // One connection per database thread is all that can ever be in use at once
+        int poolSize = config.STORAGE_POOL_SIZE > 0 ? config.STORAGE_POOL_SIZE
+                : Math.max(0, config.DATABASE_READ_THREADS) + 1;
+        hikariConfig.setMaximumPoolSize(poolSize);
+        hikariConfig.setMinimumIdle(Math.min(poolSize, 1));
+        hikariConfig.setConnectionTimeout(Math.max(250L, config.STORAGE_CONNECTION_TIMEOUT));
+        hikariConfig.setValidationTimeout(Math.max(250L, config.STORAGE_VALIDATION_TIMEOUT));
+
+        try {
+            this.dataSource = new HikariDataSource(hikariConfig);
+        } catch (RuntimeException e) {
+            // Hikari reports a database it can't reach with an unchecked exception
+            throw new SQLException("Failed to connect to the " + type + " database", e);
+        }
+        DataSource timedDataSource = config.STORAGE_STATEMENT_TIMEOUT > 0
+                ? new StatementTimeoutDataSource(dataSource, config.STORAGE_STATEMENT_TIMEOUT) : dataSource;
+        this.connectionSource = new DataSourceConnectionSource(timedDataSource, jdbcUrl);
+    }
+
+    //------------------------------------------------------------------------------------------------------------------
+
+    /**
+     * Closes every connection in the pool. Must only be called once nothing else will use the database.
+     */
+    public void close() {
+        try {
+            connectionSource.close();
+        } catch (Exception e) {
+            plugin.logError("Failed to close the database connection source.\n" + e.getMessage());
+        }
+        dataSource.close();
+    }
+
+    /**
+     * Builds the JDBC URL of the configured database.
+     *
+     * @param config The instance of the configuration class
+     * @return The URL
+     */
+    private String buildUrl(CGConfig config) {
+        File file = new File(plugin.getDataFolder(), config.STORAGE_FILE);
+        return switch(type) {
+            case SQLITE -> "jdbc:sqlite:" + file.getAbsolutePath() + ".db";
+            case H2 -> "jdbc:h2:file:" + file.getAbsolutePath() + ";MODE=MySQL";
+            case MYSQL -> "jdbc:mysql://" + config.STORAGE_HOST + ":" + config.STORAGE_PORT + "/"
+                    + config.STORAGE_DATABASE + (config.STORAGE_PROPERTIES.isEmpty() ? ""
+                    : "?" + config.STORAGE_PROPERTIES);
+        };
+    }
+
+    //------------------------------------------------------------------------------------------------------------------
+
+    /**
+     * Returns the connection source the DAOs should be created from.
+     *
+     * @return The connection source
+     */
+    public ConnectionSource getConnectionSource() {
+        return connectionSource;
+    }
+
+    /**
+     * Returns the kind of database being used.
+     *
+     * @return The storage type
+     */
+    public Type getType() {
+        return type;
+    }
+
+    //------------------------------------------------------------------------------------------------------------------
+
+    /**
+     * The kinds of database the plugin can store its tables in.
+     */
+    public enum Type {
+
+        /**
+         * A SQLite file in the plugin's folder. Only one server can use it at a time.
+         */
+        SQLITE("org.sqlite.JDBC"),
+        /**
+         * An H2 file in the plugin's folder, running in MySQL mode.
+         */
+        H2("org.h2.Driver"),
+        /**
+         * A MySQL or MariaDB server. The driver is provided by the server.
+         */
+        MYSQL("com.mysql.cj.jdbc.Driver");
+
+        /**
+         * The JDBC driver class used to connect.
+         */
+        private final String driverClass;
+
+        /**
+         * Initializes the storage type.
+         *
+         * @param driverClass The JDBC driver class used to connect
+         */
+        Type(String driverClass) {
+            this.driverClass = driverClass;
+        }
+
+        /**
+         * Finds the storage type named in the config, falling back to SQLite.
+         *
+         * @param name The name of the storage type, in any case
+         * @return The storage type
+         */
+        static Type fromConfig(String name) {
+            for(Type type : values()) {
+                if(type.name().equalsIgnoreCase(name)) return type;
+            }
+            return SQLITE;
+        }
+
+    }
+
+    /**
+     * A data source that gives every statement created on its connections a query timeout.
+     * ORMLite has no setting for this, so the connections are wrapped instead.
+     */
+    private static final class StatementTimeoutDataSource implements DataSource {
+
+        /**
+         * The data source being wrapped.
+         */
+        private final DataSource delegate;
+        /**
+         * The query timeout given to every statement, in seconds.
+         */
+        private final int timeoutSeconds;
+
+        /**
+         * Initializes the data source.
+         *
+         * @param delegate The data source being wrapped
+         * @param timeoutSeconds The query timeout given to every statement, in seconds
+         */
+        private StatementTimeoutDataSource(DataSource delegate, int timeoutSeconds) {
+            this.delegate = delegate;
+            this.timeoutSeconds = timeoutSeconds;
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            return wrap(delegate.getConnection());
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            return wrap(delegate.getConnection(username, password));
+        }
+
+        /**
+         * Wraps a connection so every statement it creates has the query timeout set.
+         *
+         * @param connection The connection being wrapped
+         * @return The wrapped connection
+         */
+        private Connection wrap(Connection connection) {
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                    new Class<?>[] {Connection.class}, (proxy, method, args) -> {
+                        Object result;
+                        try {
+                            result = method.invoke(connection, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getCause();
+                        }
+                        if(result instanceof Statement statement) statement.setQueryTimeout(timeoutSeconds);
+                        return result;
+                    });
+        }
+
+        @Override
+        public PrintWriter getLogWriter() throws SQLException {
+            return delegate.getLogWriter();
+        }
+
+        @Override
+        public void setLogWriter(PrintWriter out) throws SQLException {
+            delegate.setLogWriter(out);
+        }
+
+        @Override
+        public void setLoginTimeout(int seconds) throws SQLException {
+            delegate.setLoginTimeout(seconds);
+        }
+
+        @Override
+        public int getLoginTimeout() throws SQLException {
+            return delegate.getLoginTimeout();
+        }
+
+        @Override
+        public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+            return delegate.getParentLogger();
+        }
+
+        @Override
+        public <T> T unwrap(Class<T> iface) throws SQLException {
+            return delegate.unwrap(iface);
+        }
+
+        @Override
+        public boolean isWrapperFor(Class<?> iface) throws SQLException {
+            return delegate.isWrapperFor(iface);
+        }
+
+    }
+
+}
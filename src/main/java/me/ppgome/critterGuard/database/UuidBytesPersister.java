@@ -0,0 +1,132 @@
+package me.ppgome.critterGuard.database;
+
+import com.j256.ormlite.field.FieldType;
+import com.j256.ormlite.field.SqlType;
+import com.j256.ormlite.field.types.BaseDataType;
+import com.j256.ormlite.support.DatabaseResults;
+
+import java.sql.SQLException;
+import java.util.UUID;
+
+/**
+ * Stores a UUID field in a 16 byte binary column instead of a 36 character one, without going through a string.
+ * The column is a third of the size, and so are the indexes built on it, which lets far more of them fit in memory.
+ * Fields using it should declare the column as BINARY(16), which every supported database accepts.
+ */
+public class UuidBytesPersister extends BaseDataType {
+
+    /**
+     * The instance ORMLite uses for every field.
+     */
+    private static final UuidBytesPersister SINGLETON = new UuidBytesPersister();
+
+    //------------------------------------------------------------------------------------------------------------------
+
+    /**
+     * Initializes the persister.
+     */
+    private UuidBytesPersister() {
+        super(SqlType.BYTE_ARRAY);
+    }
+
+    /**
+     * Returns the instance of the persister. Called by ORMLite.
+     *
+     * @return The persister
+     */
+    public static UuidBytesPersister getSingleton() {
+        return SINGLETON;
+    }
+
+    //------------------------------------------------------------------------------------------------------------------
+
+    @Override
+    public Object parseDefaultString(FieldType fieldType, String defaultStr) throws SQLException {
+        try {
+            return toBytes(defaultStr);
+        } catch (IllegalArgumentException e) {
+            throw new SQLException("\"" + defaultStr + "\" is not a valid UUID for " + fieldType.getColumnName(), e);
+        }
+    }
+
+    @Override
+    public Object resultToSqlArg(FieldType fieldType, DatabaseResults results, int columnPos) throws SQLException {
+        return results.getBytes(columnPos);
+    }
+
+    @Override
+    public Object javaToSqlArg(FieldType fieldType, Object javaObject) {
+        return toBytes((UUID) javaObject);
+    }
+
+    @Override
+    public Object sqlArgToJava(FieldType fieldType, Object sqlArg, int columnPos) throws SQLException {
+        byte[] bytes = (byte[]) sqlArg;
+        if(bytes.length != 16) {
+            throw new SQLException(fieldType.getColumnName() + " holds " + bytes.length + " bytes instead of a UUID");
+        }
+        return toUuid(bytes);
+    }
+
+    @Override
+    public boolean isValidForId() {
+        return true;
+    }
+
+    @Override
+    public boolean isArgumentHolderRequired() {
+        return true;
+    }
+
+    @Override
+    public Class<?> getPrimaryClass() {
+        return UUID.class;
+    }
+
+    //------------------------------------------------------------------------------------------------------------------
+
+    /**
+     * Converts a UUID stored as text, such as in the legacy tables, into the 16 bytes stored in the database.
+     *
+     * @param uuid The UUID string
+     * @return The bytes, or null if the UUID is null
+     * @throws IllegalArgumentException If the string isn't a valid UUID
+     */
+    public static byte[] toBytes(String uuid) {
+        return uuid == null ? null : toBytes(UUID.fromString(uuid));
+    }
+
+    /**
+     * Converts a UUID into the 16 bytes stored in the database, most significant first.
+     *
+     * @param uuid The UUID
+     * @return The bytes
+     */
+    public static byte[] toBytes(UUID uuid) {
+        byte[] bytes = new byte[16];
+        long most = uuid.getMostSignificantBits();
+        long least = uuid.getLeastSignificantBits();
+        for(int i = 0; i < 8; i++) {
+            bytes[i] = (byte) (most >>> (56 - i * 8));
+            bytes[i + 8] = (byte) (least >>> (56 - i * 8));
+        }
+        return bytes;
+    }
+
+    /**
+     * Converts the 16 bytes stored in the database back into a UUID.
+     *
+     * @param bytes The bytes
+     * @return The UUID
+     */
+    public static UUID toUuid(byte[] bytes) {
+        long most = 0L;
+        long least = 0L;
+        for(int i = 0; i < 8; i++) {
+            most = (most << 8) | (bytes[i] & 0xFF);
+            least = (least << 8) | (bytes[i + 8] & 0xFF);
+        }
+        return new UUID(most, least);
+    }
+
+}
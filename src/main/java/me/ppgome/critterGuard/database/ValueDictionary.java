@@ -0,0 +1,201 @@
+package me.ppgome.critterGuard.database;
+
+import com.j256.ormlite.support.ConnectionSource;
+import com.j256.ormlite.support.DatabaseConnection;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Numbers the strings that repeat across thousands of rows, such as entity types, colours, styles and world names,
+ * so each row stores a small integer instead of the string.
+ *
+ * Every code is kept in its own table and loaded into memory when the plugin starts. A string seen for the first time
+ * is given the next free code and written to the table on the connection of the write it's part of, so the code is
+ * committed along with the row that uses it. Only this server writes to the table, so the codes in memory are always
+ * the whole of it.
+ */
+public class ValueDictionary {
+
+    /**
+     * The table the codes are stored in.
+     */
+    static final String TABLE = "critterguard_dictionary";
+    /**
+     * The dictionary used by the database persisters. Set once the database is set up.
+     */
+    private static volatile ValueDictionary instance;
+
+    /**
+     * The connection source of the database the codes are stored in.
+     */
+    private final ConnectionSource connectionSource;
+    /**
+     * Every known code, keyed by its string.
+     */
+    private final ConcurrentHashMap<String, Integer> codesByValue = new ConcurrentHashMap<>();
+    /**
+     * Every known string, keyed by its code.
+     */
+    private final ConcurrentHashMap<Integer, String> valuesByCode = new ConcurrentHashMap<>();
+    /**
+     * The code given to the next new string.
+     */
+    private int nextCode = 1;
+
+    //------------------------------------------------------------------------------------------------------------------
+
+    /**
+     * Initializes the dictionary.
+     *
+     * @param connectionSource The connection source of the database the codes are stored in
+     */
+    private ValueDictionary(ConnectionSource connectionSource) {
+        this.connectionSource = connectionSource;
+    }
+
+    /**
+     * Creates the dictionary table if needed, loads every code in it and makes it the dictionary the persisters use.
+     *
+     * @param connectionSource The connection source of the database the codes are stored in
+     * @return The dictionary
+     * @throws SQLException If the table can't be created or read
+     */
+    public static ValueDictionary install(ConnectionSource connectionSource) throws SQLException {
+        ValueDictionary dictionary = new ValueDictionary(connectionSource);
+        DatabaseConnection databaseConnection = connectionSource.getReadWriteConnection(TABLE);
+        try {
+            Connection connection = databaseConnection.getUnderlyingConnection();
+            try(Statement statement = connection.createStatement()) {
+                statement.execute("CREATE TABLE IF NOT EXISTS " + TABLE + " (code INTEGER NOT NULL PRIMARY KEY, "
+                        + "dict_value VARCHAR(255) NOT NULL UNIQUE)");
+            }
+            dictionary.load(connection);
+        } finally {
+            connectionSource.releaseConnection(databaseConnection);
+        }
+        instance = dictionary;
+        return dictionary;
+    }
+
+    /**
+     * Returns the dictionary the persisters use.
+     *
+     * @return The dictionary
+     * @throws IllegalStateException If the database hasn't been set up yet
+     */
+    public static ValueDictionary get() {
+        ValueDictionary dictionary = instance;
+        if(dictionary == null) throw new IllegalStateException("The value dictionary hasn't been loaded yet.");
+        return dictionary;
+    }
+
+    //------------------------------------------------------------------------------------------------------------------
+
+    /**
+     * Fetches the code of a string, giving it one if it doesn't have one yet.
+     * A new code is written on the connection of the batch running on this thread, if there is one.
+     *
+     * @param value The string
+     * @return The code, or null if the string is null
+     * @throws SQLException If a new code can't be written
+     */
+    public Integer getCode(String value) throws SQLException {
+        if(value == null) return null;
+        Integer code = codesByValue.get(value);
+        if(code != null) return code;
+
+        DatabaseConnection databaseConnection = connectionSource.getReadWriteConnection(TABLE);
+        try {
+            return getCode(databaseConnection.getUnderlyingConnection(), value);
+        } finally {
+            connectionSource.releaseConnection(databaseConnection);
+        }
+    }
+
+    /**
+     * Fetches the code of a string, giving it one on the given connection if it doesn't have one yet.
+     *
+     * @param connection The connection a new code is written on
+     * @param value The string
+     * @return The code, or null if the string is null
+     * @throws SQLException If a new code can't be written
+     */
+    synchronized Integer getCode(Connection connection, String value) throws SQLException {
+        if(value == null) return null;
+        Integer code = codesByValue.get(value);
+        if(code != null) return code;
+
+        code = nextCode;
+        try(PreparedStatement statement = connection.prepareStatement("INSERT INTO " + TABLE
+                + " (code, dict_value) VALUES (?, ?)")) {
+            statement.setInt(1, code);
+            statement.setString(2, value);
+            statement.executeUpdate();
+        }
+        remember(code, value);
+        return code;
+    }
+
+    /**
+     * Fetches the string a code stands for.
+     *
+     * @param code The code
+     * @return The string, or null if the code is null or unknown
+     */
+    public String getValue(Integer code) {
+        if(code == null) return null;
+        return valuesByCode.get(code);
+    }
+
+    /**
+     * Forgets every code and reads them again. Called after a write fails, as the codes it added were rolled back.
+     *
+     * @throws SQLException If the table can't be read
+     */
+    public synchronized void reload() throws SQLException {
+        DatabaseConnection databaseConnection = connectionSource.getReadWriteConnection(TABLE);
+        try {
+            codesByValue.clear();
+            valuesByCode.clear();
+            nextCode = 1;
+            load(databaseConnection.getUnderlyingConnection());
+        } finally {
+            connectionSource.releaseConnection(databaseConnection);
+        }
+    }
+
+    //------------------------------------------------------------------------------------------------------------------
+
+    /**
+     * Reads every code in the table into memory.
+     *
+     * @param connection The connection to read on
+     * @throws SQLException If the table can't be read
+     */
+    private void load(Connection connection) throws SQLException {
+        try(Statement statement = connection.createStatement();
+            ResultSet resultSet = statement.executeQuery("SELECT code, dict_value FROM " + TABLE)) {
+            while(resultSet.next()) {
+                remember(resultSet.getInt(1), resultSet.getString(2));
+            }
+        }
+    }
+
+    /**
+     * Keeps a code in memory.
+     *
+     * @param code The code
+     * @param value The string it stands for
+     */
+    private void remember(int code, String value) {
+        codesByValue.put(value, code);
+        valuesByCode.put(code, value);
+        nextCode = Math.max(nextCode, code + 1);
+    }
+
+}
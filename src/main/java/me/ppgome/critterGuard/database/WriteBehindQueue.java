@@ -0,0 +1,270 @@
+package me.ppgome.critterGuard.database;
+
+import me.ppgome.critterGuard.CGConfig;
+import me.ppgome.critterGuard.CritterGuard;
+import org.bukkit.Bukkit;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Executor;
+
+/**
+ * Buffers the saves and deletes issued by the table classes and writes them to the database in batches.
+ *
+ * Writes are keyed by the record they affect, so if a critter is saved several times before the next flush
+ * only the latest write is executed. A write only replaces the pending one if it's for the same object; a new object
+ * sharing the key, such as an access row granted again after the old one was deleted, runs after it instead. The queue is flushed whenever it reaches the configured batch size or
+ * when the flush interval elapses, whichever comes first. Flushes only ever run on the writer thread; if one can't be
+ * handed to it, everything stays queued for the next.
+ */
+public class WriteBehindQueue {
+
+    /**
+     * The instance of the plugin.
+     */
+    private final CritterGuard plugin;
+    /**
+     * The maximum number of writes executed in a single transaction, and the queue size that triggers an early flush.
+     */
+    private final int batchSize;
+    /**
+     * The pending writes, keyed by the record they affect. Ordered by when each key was last written.
+     */
+    private LinkedHashMap<String, PendingWrite> pendingWrites = new LinkedHashMap<>();
+    /**
+     * The pending last known locations of saved mounts, keyed by the mount's UUID so only the newest is written.
+     */
+    private LinkedHashMap<UUID, LastSeenUpdate> pendingMountLastSeen = new LinkedHashMap<>();
+    /**
+     * The pending last known locations of saved pets, keyed by the pet's UUID so only the newest is written.
+     */
+    private LinkedHashMap<UUID, LastSeenUpdate> pendingPetLastSeen = new LinkedHashMap<>();
+    /**
+     * Held while a flush is running so batches are always written in the order they were queued.
+     */
+    private final Object flushLock = new Object();
+    /**
+     * The single database writer thread that flushes run on.
+     */
+    private final Executor writeExecutor;
+    /**
+     * The repeating task that flushes the queue on the configured interval.
+     */
+    private final BukkitTask flushTask;
+    /**
+     * True if a flush has already been handed to the writer thread and hasn't started yet.
+     */
+    private boolean flushRequested;
+    /**
+     * True once the queue has been drained on shutdown. Any writes after this point are executed immediately.
+     */
+    private boolean closed;
+
+    //------------------------------------------------------------------------------------------------------------------
+
+    /**
+     * Initializes the queue and starts the interval flush task.
+     *
+     * @param plugin The instance of the plugin
+     */
+    public WriteBehindQueue(CritterGuard plugin) {
+        this.plugin = plugin;
+        CGConfig config = plugin.getCGConfig();
+        this.writeExecutor = plugin.getDatabaseExecutor().getWriteExecutor();
+        this.batchSize = Math.max(1, config.WRITE_BATCH_SIZE);
+        long interval = Math.max(1L, config.WRITE_FLUSH_INTERVAL);
+        this.flushTask = Bukkit.getScheduler().runTaskTimerAsynchronously(plugin,
+                () -> writeExecutor.execute(this::flush), interval, interval);
+    }
+
+    //------------------------------------------------------------------------------------------------------------------
+
+    /**
+     * Queues a write for the record identified by the key.
+     * Any write still pending for the same object is replaced. A pending write for a different object with the same
+     * key is kept and runs first, as the two may be different rows.
+     *
+     * @param key A key unique to the record being written (e.g. "mount:<uuid>")
+     * @param entity The object being written
+     * @param write The database operation to run
+     * @param errorMessage The message logged if the operation fails
+     */
+    public void enqueue(String key, Object entity, DatabaseWrite write, String errorMessage) {
+        PendingWrite pendingWrite = new PendingWrite(entity, write, errorMessage, null);
+        boolean queued = false;
+        boolean flushNow = false;
+        synchronized (this) {
+            if(!closed) {
+                // Remove first so the record moves to the back of the queue with its newest write
+                PendingWrite previous = pendingWrites.remove(key);
+                if(previous != null) {
+                    PendingWrite earlier = previous.entity() == entity ? previous.earlier() : previous;
+                    pendingWrite = new PendingWrite(entity, write, errorMessage, earlier);
+                }
+                pendingWrites.put(key, pendingWrite);
+                queued = true;
+                if(pendingWrites.size() >= batchSize && !flushRequested) {
+                    flushRequested = true;
+                    flushNow = true;
+                }
+            }
+        }
+        if(!queued) {
+            // The queue has already been drained, write straight through
+            execute(pendingWrite);
+        } else if(flushNow) {
+            writeExecutor.execute(this::flush);
+        }
+    }
+
+    /**
+     * Writes everything currently in the queue to the database, one transaction per batch.
+     */
+    public void flush() {
+        synchronized (flushLock) {
+            List<PendingWrite> writes;
+            List<LastSeenUpdate> mountUpdates;
+            List<LastSeenUpdate> petUpdates;
+            synchronized (this) {
+                flushRequested = false;
+                writes = new ArrayList<>(pendingWrites.values());
+                mountUpdates = new ArrayList<>(pendingMountLastSeen.values());
+                petUpdates = new ArrayList<>(pendingPetLastSeen.values());
+                if(!writes.isEmpty()) pendingWrites = new LinkedHashMap<>();
+                if(!mountUpdates.isEmpty()) pendingMountLastSeen = new LinkedHashMap<>();
+                if(!petUpdates.isEmpty()) pendingPetLastSeen = new LinkedHashMap<>();
+            }
+
+            for(int start = 0; start < writes.size(); start += batchSize) {
+                List<PendingWrite> batch = writes.subList(start, Math.min(start + batchSize, writes.size()));
+                try {
+                    plugin.getSavedMountDao().callBatchTasks(() -> {
+                        for(PendingWrite pendingWrite : batch) {
+                            execute(pendingWrite);
+                        }
+                        return null;
+                    });
+                } catch (Exception e) {
+                    plugin.logError("Failed to flush " + batch.size() + " queued database writes:\n" + e.getMessage());
+                    reloadDictionary();
+                }
+            }
+            // Written after the full saves, so a critter inserted in this flush already has a row to update
+            writeLastSeen(mountUpdates, petUpdates);
+        }
+    }
+
+    /**
+     * Queues the last known locations of a group of critters, to be written in a single transaction by the next flush.
+     * Only the location columns are updated, so these are kept apart from any full saves waiting in the queue.
+     *
+     * @param mountUpdates The location snapshots of saved mounts
+     * @param petUpdates The location snapshots of saved pets
+     */
+    public void submitLastSeen(List<LastSeenUpdate> mountUpdates, List<LastSeenUpdate> petUpdates) {
+        if(mountUpdates.isEmpty() && petUpdates.isEmpty()) return;
+        boolean queued = false;
+        boolean flushNow = false;
+        synchronized (this) {
+            if(!closed) {
+                for(LastSeenUpdate update : mountUpdates) pendingMountLastSeen.put(update.entityUuid(), update);
+                for(LastSeenUpdate update : petUpdates) pendingPetLastSeen.put(update.entityUuid(), update);
+                queued = true;
+                if(!flushRequested) {
+                    flushRequested = true;
+                    flushNow = true;
+                }
+            }
+        }
+        if(!queued) {
+            // The queue has already been drained, write straight through
+            writeLastSeen(mountUpdates, petUpdates);
+        } else if(flushNow) {
+            writeExecutor.execute(this::flush);
+        }
+    }
+
+    /**
+     * Stops the interval flush task and hands everything left in the queue to the writer thread.
+     * Any writes queued after this is called are executed immediately.
+     */
+    public void shutdown() {
+        flushTask.cancel();
+        synchronized (this) {
+            closed = true;
+        }
+        writeExecutor.execute(this::flush);
+    }
+
+    /**
+     * Reads the value dictionary again after a batch was rolled back, as any codes it added were rolled back with it.
+     */
+    private void reloadDictionary() {
+        try {
+            ValueDictionary.get().reload();
+        } catch (SQLException e) {
+            plugin.logError("Failed to reload the value dictionary:\n" + e.getMessage());
+        }
+    }
+
+    /**
+     * Writes the last known locations of a group of critters in a single transaction.
+     *
+     * @param mountUpdates The location snapshots of saved mounts
+     * @param petUpdates The location snapshots of saved pets
+     */
+    private void writeLastSeen(List<LastSeenUpdate> mountUpdates, List<LastSeenUpdate> petUpdates) {
+        int count = mountUpdates.size() + petUpdates.size();
+        if(count == 0) return;
+        try {
+            plugin.getSavedMountDao().callBatchTasks(() -> {
+                plugin.getSavedMountTable().updateLastSeen(mountUpdates);
+                plugin.getSavedPetTable().updateLastSeen(petUpdates);
+                return null;
+            });
+        } catch (Exception e) {
+            plugin.logError("Failed to save the last known locations of " + count + " critters:\n" + e.getMessage());
+            reloadDictionary();
+        }
+    }
+
+    /**
+     * Runs a single queued write, after any earlier write for a different object with the same key, logging its error
+     * message if it fails.
+     *
+     * @param pendingWrite The write being run
+     */
+    private void execute(PendingWrite pendingWrite) {
+        if(pendingWrite.earlier() != null) execute(pendingWrite.earlier());
+        try {
+            pendingWrite.write().execute();
+        } catch (Exception e) {
+            plugin.logError(pendingWrite.errorMessage() + "\n" + e.getMessage());
+        }
+    }
+
+    //------------------------------------------------------------------------------------------------------------------
+
+    /**
+     * A single database operation waiting in the queue.
+     */
+    @FunctionalInterface
+    public interface DatabaseWrite {
+        void execute() throws SQLException;
+    }
+
+    /**
+     * A queued write and the message to log if it fails.
+     *
+     * @param entity The object being written
+     * @param write The database operation
+     * @param errorMessage The message logged on failure
+     * @param earlier The pending write for a different object with the same key, run before this one, or null
+     */
+    private record PendingWrite(Object entity, DatabaseWrite write, String errorMessage, PendingWrite earlier) {}
+
+}
@@ -0,0 +1,51 @@
+package me.ppgome.critterGuard.metrics;
+
+/**
+ * The event handlers whose latency is recorded by {@link EventMetrics}.
+ */
+public enum EventMetric {
+
+    JOIN("join"),
+    TAME("tame"),
+    DEATH("death"),
+    INTERACT("interact"),
+    NAME("name"),
+    LEASH("leash"),
+    MOUNT("mount"),
+    SNEAK("sneak"),
+    QUIT("quit"),
+    DAMAGE("damage"),
+    DISMOUNT("dismount"),
+    UNLOAD("unload"),
+    LOAD("load"),
+    BREED("breed"),
+    SPAWN("spawn");
+
+    /**
+     * The name shown for this handler in /critter stats.
+     */
+    private final String displayName;
+
+    //------------------------------------------------------------------------------------------------------------------
+
+    /**
+     * Initializes the metric.
+     *
+     * @param displayName The name shown for this handler in /critter stats
+     */
+    EventMetric(String displayName) {
+        this.displayName = displayName;
+    }
+
+    //------------------------------------------------------------------------------------------------------------------
+
+    /**
+     * Returns the name shown for this handler in /critter stats.
+     *
+     * @return the display name
+     */
+    public String getDisplayName() {
+        return displayName;
+    }
+
+}
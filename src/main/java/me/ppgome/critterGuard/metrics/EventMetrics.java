@@ -0,0 +1,149 @@
+package me.ppgome.critterGuard.metrics;
+
+import me.ppgome.critterGuard.CGConfig;
+import me.ppgome.critterGuard.CritterGuard;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Records how long each of CritterGuard's event handlers takes and how often it runs.
+ *
+ * Recording is controlled by the enableEventMetrics toggle. While it's off, handlers skip the clock entirely and
+ * the only cost is one field read per event.
+ */
+public class EventMetrics {
+
+    /**
+     * The instance of the plugin.
+     */
+    private final CritterGuard plugin;
+    /**
+     * The instance of the configuration class.
+     */
+    private final CGConfig config;
+    /**
+     * One histogram per event handler, indexed by the metric's ordinal.
+     */
+    private final LatencyHistogram[] histograms = new LatencyHistogram[EventMetric.values().length];
+    /**
+     * The format used in the names of dumped stats files.
+     */
+    private static final DateTimeFormatter FILE_DATE_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    //------------------------------------------------------------------------------------------------------------------
+
+    /**
+     * Initializes an empty histogram for every event handler.
+     *
+     * @param plugin The instance of the plugin
+     */
+    public EventMetrics(CritterGuard plugin) {
+        this.plugin = plugin;
+        this.config = plugin.getCGConfig();
+        for(int i = 0; i < histograms.length; i++) {
+            histograms[i] = new LatencyHistogram();
+        }
+    }
+
+    //------------------------------------------------------------------------------------------------------------------
+
+    /**
+     * Checks if event metrics are being recorded.
+     *
+     * @return True if they are, false if not
+     */
+    public boolean isEnabled() {
+        return config.ENABLE_EVENT_METRICS;
+    }
+
+    /**
+     * Marks the start of an event handler.
+     *
+     * @return The start time to pass to {@link #record(EventMetric, long)}, or 0 if metrics are disabled
+     */
+    public long start() {
+        return config.ENABLE_EVENT_METRICS ? System.nanoTime() : 0L;
+    }
+
+    /**
+     * Records the time an event handler took.
+     *
+     * @param metric The handler that ran
+     * @param start The value returned by {@link #start()} when the handler began
+     */
+    public void record(EventMetric metric, long start) {
+        if(start == 0L) return;
+        histograms[metric.ordinal()].record(System.nanoTime() - start);
+    }
+
+    /**
+     * Clears every recorded value.
+     */
+    public void reset() {
+        for(LatencyHistogram histogram : histograms) {
+            histogram.reset();
+        }
+    }
+
+    /**
+     * Builds one line per event handler with its invocation count and latency percentiles, in microseconds.
+     *
+     * @return The lines, in MiniMessage format
+     */
+    public List<String> summary() {
+        List<String> lines = new ArrayList<>();
+        for(EventMetric metric : EventMetric.values()) {
+            LatencyHistogram.Snapshot snapshot = histograms[metric.ordinal()].snapshot();
+            if(snapshot.count() == 0) continue;
+            lines.add("<yellow>" + metric.getDisplayName() + "</yellow> <gray>" + snapshot.count() + " calls, mean "
+                    + micros(snapshot.mean()) + ", p50 " + micros(snapshot.percentile(0.5)) + ", p99 "
+                    + micros(snapshot.percentile(0.99)) + ", max " + micros(snapshot.max()) + "</gray>");
+        }
+        return lines;
+    }
+
+    /**
+     * Writes every histogram to a file in the plugin's stats folder.
+     * This does file IO, so don't call it on the main thread.
+     *
+     * @return The file that was written
+     * @throws IOException If the file couldn't be written
+     */
+    public Path dump() throws IOException {
+        List<String> lines = new ArrayList<>();
+        lines.add("# CritterGuard event handler latency, dumped " + LocalDateTime.now());
+        lines.add("# All times in microseconds");
+        lines.add("handler,count,mean,p50,p90,p99,p999,max");
+        for(EventMetric metric : EventMetric.values()) {
+            LatencyHistogram.Snapshot snapshot = histograms[metric.ordinal()].snapshot();
+            lines.add(metric.getDisplayName() + "," + snapshot.count() + "," + micros(snapshot.mean()) + ","
+                    + micros(snapshot.percentile(0.5)) + "," + micros(snapshot.percentile(0.9)) + ","
+                    + micros(snapshot.percentile(0.99)) + "," + micros(snapshot.percentile(0.999)) + ","
+                    + micros(snapshot.max()));
+        }
+
+        Path folder = new File(plugin.getDataFolder(), "stats").toPath();
+        Files.createDirectories(folder);
+        Path file = folder.resolve("event-stats-" + LocalDateTime.now().format(FILE_DATE_FORMAT) + ".csv");
+        return Files.write(file, lines);
+    }
+
+    /**
+     * Formats nanoseconds as microseconds with one decimal place.
+     *
+     * @param nanos The nanoseconds
+     * @return The formatted microseconds
+     */
+    private static String micros(double nanos) {
+        return String.format(Locale.ROOT, "%.1f", nanos / 1000.0);
+    }
+
+}
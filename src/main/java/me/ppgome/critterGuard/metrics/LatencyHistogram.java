@@ -0,0 +1,164 @@
+package me.ppgome.critterGuard.metrics;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A fixed-size latency histogram with log-linear buckets, in the style of HdrHistogram.
+ *
+ * Every power of two is split into eight sub-buckets, so any recorded value is reported within 12.5% of its real
+ * value. Buckets are striped counters, so recording never locks and never allocates.
+ */
+public class LatencyHistogram {
+
+    /**
+     * The number of bits used to pick a sub-bucket within a power of two.
+     */
+    private static final int SUB_BUCKET_BITS = 3;
+    /**
+     * The number of sub-buckets each power of two is split into.
+     */
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    /**
+     * The total number of buckets, enough to cover every non-negative long.
+     */
+    private static final int BUCKETS = (64 - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+
+    /**
+     * The number of values recorded in each bucket.
+     */
+    private final LongAdder[] buckets = new LongAdder[BUCKETS];
+    /**
+     * The number of values recorded.
+     */
+    private final LongAdder count = new LongAdder();
+    /**
+     * The sum of every value recorded.
+     */
+    private final LongAdder total = new LongAdder();
+    /**
+     * The largest value recorded.
+     */
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0L);
+
+    //------------------------------------------------------------------------------------------------------------------
+
+    /**
+     * Creates an empty histogram.
+     */
+    public LatencyHistogram() {
+        for(int i = 0; i < BUCKETS; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    //------------------------------------------------------------------------------------------------------------------
+
+    /**
+     * Records a value. Negative values are recorded as zero.
+     *
+     * @param value The value being recorded
+     */
+    public void record(long value) {
+        if(value < 0) value = 0;
+        buckets[bucketIndex(value)].increment();
+        count.increment();
+        total.add(value);
+        max.accumulate(value);
+    }
+
+    /**
+     * Clears every recorded value.
+     * Values recorded while this runs may be partly kept.
+     */
+    public void reset() {
+        for(LongAdder bucket : buckets) {
+            bucket.reset();
+        }
+        count.reset();
+        total.reset();
+        max.reset();
+    }
+
+    /**
+     * Takes a consistent-enough copy of the histogram for reporting.
+     *
+     * @return The snapshot
+     */
+    public Snapshot snapshot() {
+        long[] counts = new long[BUCKETS];
+        long recorded = 0;
+        for(int i = 0; i < BUCKETS; i++) {
+            counts[i] = buckets[i].sum();
+            recorded += counts[i];
+        }
+        return new Snapshot(counts, recorded, total.sum(), max.get());
+    }
+
+    /**
+     * Returns the bucket a value belongs in.
+     *
+     * @param value The value, which must not be negative
+     * @return The index of its bucket
+     */
+    static int bucketIndex(long value) {
+        if(value < SUB_BUCKETS) return (int) value;
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        int subBucket = (int) ((value >>> shift) & (SUB_BUCKETS - 1));
+        return ((shift + 1) << SUB_BUCKET_BITS) + subBucket;
+    }
+
+    /**
+     * Returns the largest value that belongs in a bucket.
+     *
+     * @param index The index of the bucket
+     * @return The bucket's upper bound
+     */
+    static long bucketUpperBound(int index) {
+        if(index < SUB_BUCKETS) return index;
+        int shift = (index >>> SUB_BUCKET_BITS) - 1;
+        long subBucket = index & (SUB_BUCKETS - 1);
+        return (((SUB_BUCKETS | subBucket) + 1) << shift) - 1;
+    }
+
+    //------------------------------------------------------------------------------------------------------------------
+
+    /**
+     * A point-in-time copy of a histogram.
+     *
+     * @param counts The number of values in each bucket
+     * @param count The number of values recorded
+     * @param total The sum of every value recorded
+     * @param max The largest value recorded
+     */
+    public record Snapshot(long[] counts, long count, long total, long max) {
+
+        /**
+         * Returns the mean of the recorded values.
+         *
+         * @return The mean, or 0 if nothing was recorded
+         */
+        public double mean() {
+            return count == 0 ? 0 : (double) total / count;
+        }
+
+        /**
+         * Returns the value below which the given fraction of recorded values fall.
+         *
+         * @param percentile The percentile, from 0 to 1
+         * @return The value at that percentile, or 0 if nothing was recorded
+         */
+        public long percentile(double percentile) {
+            if(count == 0) return 0;
+            long target = Math.max(1L, (long) Math.ceil(percentile * count));
+            long seen = 0;
+            for(int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if(seen >= target) return Math.min(bucketUpperBound(i), max);
+            }
+            return max;
+        }
+
+    }
+
+}
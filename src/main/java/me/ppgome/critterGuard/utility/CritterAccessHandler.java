@@ -5,10 +5,7 @@ import me.ppgome.critterGuard.CritterCache;
 import me.ppgome.critterGuard.CritterGuard;
 import me.ppgome.critterGuard.database.*;
 import org.bukkit.Bukkit;
-import org.bukkit.OfflinePlayer;
-import org.bukkit.entity.Camel;
 import org.bukkit.entity.Entity;
-import org.bukkit.entity.HappyGhast;
 import org.bukkit.entity.Player;
 
 import java.util.UUID;
@@ -83,7 +80,7 @@ public class CritterAccessHandler {
      */
     public void handlePassengerAccess(Player player, Entity entity, SavedMount savedMount,
                                       MountAccess mountAccess, boolean isBeingAdded, UUID beingAddedUuid, UUID entityUuid) {
-        if (!(entity instanceof Camel || entity instanceof HappyGhast)) {
+        if (!CritterUtils.supportsPassengers(entity)) {
             player.sendMessage(config.DOES_NOT_SUPPORT_PASSENGERS);
             return;
         }
@@ -135,34 +132,32 @@ public class CritterAccessHandler {
         critterCache.getPlayerMeta(beingAddedUuid).addMountAccess(mountAccess);
 
         // Send messages depending on access type
-        Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
-            OfflinePlayer playerBeingAdded = Bukkit.getOfflinePlayer(beingAddedUuid);
-            Bukkit.getScheduler().runTask(plugin, () -> {
-                if (mountAccess.isFullAccess()) {
-                    player.sendMessage(PlaceholderParser
-                            .of(config.TARGET_GRANTED_FULL_ACCESS)
-                            .player(playerBeingAdded.getName())
+        getOwnerName(beingAddedUuid).thenAccept(beingAddedName -> Bukkit.getScheduler().runTask(plugin, () -> {
+            Player playerBeingAdded = Bukkit.getPlayer(beingAddedUuid);
+            if (mountAccess.isFullAccess()) {
+                player.sendMessage(PlaceholderParser
+                        .of(config.TARGET_GRANTED_FULL_ACCESS)
+                        .player(beingAddedName)
+                        .parse());
+                if (playerBeingAdded != null) {
+                    playerBeingAdded.sendMessage(PlaceholderParser
+                            .of(config.GRANTED_FULL_ACCESS)
+                            .player(player.getName())
                             .parse());
-                    if (playerBeingAdded.isOnline()) {
-                        Bukkit.getPlayer(beingAddedUuid).sendMessage(PlaceholderParser
-                                .of(config.GRANTED_FULL_ACCESS)
-                                .player(player.getName())
-                                .parse());
-                    }
-                } else {
-                    player.sendMessage(PlaceholderParser
-                            .of(config.TARGET_GRANTED_PASSENGER_ACCESS)
-                            .player(playerBeingAdded.getName())
+                }
+            } else {
+                player.sendMessage(PlaceholderParser
+                        .of(config.TARGET_GRANTED_PASSENGER_ACCESS)
+                        .player(beingAddedName)
+                        .parse());
+                if (playerBeingAdded != null) {
+                    playerBeingAdded.sendMessage(PlaceholderParser
+                            .of(config.GRANTED_PASSENGER_ACCESS)
+                            .player(player.getName())
                             .parse());
-                    if (playerBeingAdded.isOnline()) {
-                        Bukkit.getPlayer(beingAddedUuid).sendMessage(PlaceholderParser
-                                .of(config.GRANTED_PASSENGER_ACCESS)
-                                .player(player.getName())
-                                .parse());
-                    }
                 }
-            });
-        });
+            }
+        }));
     }
 
     /**
@@ -185,29 +180,27 @@ public class CritterAccessHandler {
      */
     public void sendRevocationMessage(UUID beingAddedUuid, Player player) {
         // Send messages depending on access type
-        Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
-            OfflinePlayer playerBeingAdded = Bukkit.getOfflinePlayer(beingAddedUuid);
-            Bukkit.getScheduler().runTask(plugin, () -> {
-                player.sendMessage(PlaceholderParser
-                        .of(config.TARGET_REVOKED_ACCESS)
-                        .player(playerBeingAdded.getName())
+        getOwnerName(beingAddedUuid).thenAccept(beingAddedName -> Bukkit.getScheduler().runTask(plugin, () -> {
+            player.sendMessage(PlaceholderParser
+                    .of(config.TARGET_REVOKED_ACCESS)
+                    .player(beingAddedName)
+                    .parse());
+            Player playerBeingAdded = Bukkit.getPlayer(beingAddedUuid);
+            if (playerBeingAdded != null) {
+                playerBeingAdded.sendMessage(PlaceholderParser
+                        .of(config.REVOKED_ACCESS)
+                        .player(player.getName())
                         .parse());
-                if (playerBeingAdded.isOnline()) {
-                    Bukkit.getPlayer(beingAddedUuid).sendMessage(PlaceholderParser
-                            .of(config.REVOKED_ACCESS)
-                            .player(playerBeingAdded.getName())
-                            .parse());
-                }
-            });
-        });
+            }
+        }));
     }
 
     /**
-     * Asynchronously fetches the name of the owner of a mount from their UUID.
+     * Fetches the name of the owner of a mount from their UUID, using the name cache where possible.
      * @param ownerUuid The UUID of the owner
      * @return The name of the owner
      */
     public CompletableFuture<String> getOwnerName(UUID ownerUuid) {
-        return CompletableFuture.supplyAsync(() -> Bukkit.getOfflinePlayer(ownerUuid).getName());
+        return plugin.getPlayerNameCache().getName(ownerUuid);
     }
 }
@@ -0,0 +1,183 @@
+package me.ppgome.critterGuard.utility;
+
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.entity.*;
+
+import java.util.function.Consumer;
+
+/**
+ * A table of what the plugin does with each entity type, indexed by the type's ordinal.
+ *
+ * The table is built once from the critters section of the config, so classifying an entity is a single array read
+ * and new critter types only need a config entry. If the section is missing, the built-in critters are used.
+ */
+public class CritterCapabilities {
+
+    /**
+     * Flag for entity types that can be locked and ridden as a mount.
+     */
+    private static final byte MOUNTABLE = 1;
+    /**
+     * Flag for entity types that are protected as a pet.
+     */
+    private static final byte PET = 1 << 1;
+    /**
+     * Flag for mounts that players can be given passenger access to.
+     */
+    private static final byte PASSENGERS = 1 << 2;
+
+    /**
+     * The capability flags of each entity type.
+     */
+    private final byte[] flags;
+    /**
+     * The maximum number of riders of each entity type.
+     */
+    private final int[] maxSeats;
+
+    //------------------------------------------------------------------------------------------------------------------
+
+    /**
+     * Creates a table where no entity type has any capabilities.
+     */
+    private CritterCapabilities() {
+        int types = EntityType.values().length;
+        this.flags = new byte[types];
+        this.maxSeats = new int[types];
+    }
+
+    //------------------------------------------------------------------------------------------------------------------
+
+    /**
+     * Builds the table of the critters the plugin supports out of the box.
+     *
+     * @return The table
+     */
+    public static CritterCapabilities defaults() {
+        CritterCapabilities capabilities = new CritterCapabilities();
+        for(EntityType entityType : EntityType.values()) {
+            Class<? extends Entity> entityClass = entityType.getEntityClass();
+            if(entityClass == null) continue;
+            if(AbstractHorse.class.isAssignableFrom(entityClass) || HappyGhast.class.isAssignableFrom(entityClass)
+                    || Strider.class.isAssignableFrom(entityClass)) {
+                capabilities.set(entityType, MOUNTABLE, 1);
+            } else if(Wolf.class.isAssignableFrom(entityClass) || Cat.class.isAssignableFrom(entityClass)
+                    || Parrot.class.isAssignableFrom(entityClass)) {
+                capabilities.set(entityType, PET, 1);
+            }
+        }
+        capabilities.set(EntityType.CAMEL, (byte) (MOUNTABLE | PASSENGERS), 2);
+        capabilities.set(EntityType.HAPPY_GHAST, (byte) (MOUNTABLE | PASSENGERS), 4);
+        return capabilities;
+    }
+
+    /**
+     * Builds the table from the critters section of the config.
+     * Each key is an entity type name with the options mountable, pet, passengers and maxSeats.
+     *
+     * @param section The critters section, or null to use the defaults
+     * @param errorLogger Where to report entries that can't be used
+     * @return The table
+     */
+    public static CritterCapabilities load(ConfigurationSection section, Consumer<String> errorLogger) {
+        if(section == null) return defaults();
+        CritterCapabilities capabilities = new CritterCapabilities();
+        for(String key : section.getKeys(false)) {
+            EntityType entityType;
+            try {
+                entityType = EntityType.valueOf(key.toUpperCase());
+            } catch(IllegalArgumentException e) {
+                errorLogger.accept("Unknown entity type in the critters section of the config: " + key);
+                continue;
+            }
+            ConfigurationSection critter = section.getConfigurationSection(key);
+            if(critter == null) continue;
+
+            byte flags = 0;
+            if(critter.getBoolean("mountable", false)) flags |= MOUNTABLE;
+            if(critter.getBoolean("pet", false)) flags |= PET;
+            if(critter.getBoolean("passengers", false)) flags |= PASSENGERS;
+            if((flags & MOUNTABLE) != 0 && (flags & PET) != 0) {
+                errorLogger.accept(key + " can't be both a mount and a pet. It will be treated as a mount.");
+                flags &= ~PET;
+            }
+            capabilities.set(entityType, flags, Math.max(1, critter.getInt("maxSeats", 1)));
+        }
+        return capabilities;
+    }
+
+    /**
+     * Sets the capabilities of an entity type.
+     *
+     * @param entityType The entity type
+     * @param flags The capability flags
+     * @param seats The maximum number of riders
+     */
+    private void set(EntityType entityType, byte flags, int seats) {
+        this.flags[entityType.ordinal()] = flags;
+        this.maxSeats[entityType.ordinal()] = seats;
+    }
+
+    //------------------------------------------------------------------------------------------------------------------
+
+    /**
+     * Checks if an entity type can be locked and ridden as a mount.
+     *
+     * @param entityType The entity type being checked
+     * @return True if it can, false if not
+     */
+    public boolean isMountable(EntityType entityType) {
+        return (flags[entityType.ordinal()] & MOUNTABLE) != 0;
+    }
+
+    /**
+     * Checks if an entity type is protected as a pet.
+     *
+     * @param entityType The entity type being checked
+     * @return True if it is, false if not
+     */
+    public boolean isPet(EntityType entityType) {
+        return (flags[entityType.ordinal()] & PET) != 0;
+    }
+
+    /**
+     * Checks if an entity type is protected by the plugin at all.
+     *
+     * @param entityType The entity type being checked
+     * @return True if it is, false if not
+     */
+    public boolean isProtectable(EntityType entityType) {
+        return flags[entityType.ordinal()] != 0;
+    }
+
+    /**
+     * Checks if players can be given passenger access to an entity type.
+     *
+     * @param entityType The entity type being checked
+     * @return True if they can, false if not
+     */
+    public boolean supportsPassengers(EntityType entityType) {
+        return (flags[entityType.ordinal()] & PASSENGERS) != 0;
+    }
+
+    /**
+     * Returns the maximum number of players that can ride an entity type at once.
+     *
+     * @param entityType The entity type being checked
+     * @return The maximum number of riders
+     */
+    public int getMaxSeats(EntityType entityType) {
+        return Math.max(1, maxSeats[entityType.ordinal()]);
+    }
+
+    /**
+     * Checks if more than one player can ride an entity type at once.
+     *
+     * @param entityType The entity type being checked
+     * @return True if they can, false if not
+     */
+    public boolean isMultiSeat(EntityType entityType) {
+        return getMaxSeats(entityType) > 1;
+    }
+
+}
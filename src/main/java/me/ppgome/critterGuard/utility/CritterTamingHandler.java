@@ -77,9 +77,9 @@ public class CritterTamingHandler {
 
         System.out.println("Taming 2");
 
-        String entityId = entity.getUniqueId().toString();
+        UUID entityId = entity.getUniqueId();
         String customName = entity.customName() != null ? entity.customName().toString() : null;
-        String tamerId = player.getUniqueId().toString();
+        UUID tamerId = player.getUniqueId();
         String tamerName = player.getName();
         String entityType = entity.getType().toString();
 
@@ -101,8 +101,8 @@ public class CritterTamingHandler {
      * @param entityType The entity's type
      * @param player The player taming the entity
      */
-    private void handleMountTaming(Entity entity, String entityId, String customName,
-                                   String tamerId, String tamerName, String entityType, OfflinePlayer player) {
+    private void handleMountTaming(Entity entity, UUID entityId, String customName,
+                                   UUID tamerId, String tamerName, String entityType, OfflinePlayer player) {
         SavedMount newMount;
 
         switch (entity) {
@@ -142,8 +142,8 @@ public class CritterTamingHandler {
      * @param entityType The entity's type
      * @param player The player taming the entity
      */
-    private void handlePetTaming(Entity entity, String entityId, String customName,
-                                 String tamerId, String tamerName, String entityType, OfflinePlayer player) {
+    private void handlePetTaming(Entity entity, UUID entityId, String customName,
+                                 UUID tamerId, String tamerName, String entityType, OfflinePlayer player) {
         SavedPet savedPet;
 
         System.out.println("Taming 3");
@@ -190,7 +190,6 @@ public class CritterTamingHandler {
         UUID playerUuid = savedAnimal.getEntityOwnerUuid();
         plugin.registerNewPlayer(playerUuid);
         PlayerMeta playerMeta = critterCache.getPlayerMeta(playerUuid);
-        savedAnimal.setIndex(playerMeta.getOwnedList().size() + 1);
         playerMeta.addOwnedAnimal(savedAnimal);
         if(savedAnimal instanceof SavedMount savedMount) {
             critterCache.addSavedMount(savedMount);
@@ -206,7 +205,8 @@ public class CritterTamingHandler {
      */
     public void unregisterSavedMount(SavedAnimal savedAnimal) {
         System.out.println("We get here 2.1");
-        critterCache.getPlayerMeta(savedAnimal.getEntityOwnerUuid()).removeOwnedAnimal(savedAnimal);
+        PlayerMeta playerMeta = critterCache.getPlayerMeta(savedAnimal.getEntityOwnerUuid());
+        if(playerMeta != null) playerMeta.removeOwnedAnimal(savedAnimal);
         System.out.println("We get here 2.2");
         if(savedAnimal instanceof SavedMount savedMount) {
             critterCache.removeSavedMount(savedMount);
@@ -233,21 +233,11 @@ public class CritterTamingHandler {
             unregisterSavedMount(savedMount);
             plugin.logInfo("Removed saved mount " + savedMount.getEntityUuid() + " due to death.");
         } else {
-            savedPetTable.getSavedPet(entityUuid.toString()).thenAccept(savedPet -> {
-                if(savedPet != null) {
-                    Bukkit.getScheduler().runTask(plugin, () -> {
-                        PlayerMeta playerMeta = critterCache.getPlayerMeta(savedPet.getEntityOwnerUuid());
-                        if(playerMeta != null) {
-                            SavedAnimal realAnimal = playerMeta.getOwnedAnimalByUuid(entityUuid);
-                            if(realAnimal != null) {
-                                playerMeta.removeOwnedAnimal(realAnimal);
-                            }
-                        }
-                        savedPetTable.delete(savedPet);
-                        plugin.logInfo("Removed saved pet " + savedPet.getEntityUuid() + " due to death.");
-                    });
-                }
-            });
+            SavedPet savedPet = critterCache.getSavedPet(entityUuid);
+            if(savedPet != null) {
+                unregisterSavedMount(savedPet);
+                plugin.logInfo("Removed saved pet " + savedPet.getEntityUuid() + " due to death.");
+            }
         }
     }
 
@@ -4,6 +4,33 @@ import org.bukkit.entity.*;
 
 public class CritterUtils {
 
+    /**
+     * What the plugin does with each entity type.
+     * Replaced as a whole when the config is reloaded, so readers always see one complete table.
+     */
+    private static volatile CritterCapabilities capabilities = CritterCapabilities.defaults();
+
+    //------------------------------------------------------------------------------------------------------------------
+
+    /**
+     * Replaces the table used to classify entities.
+     *
+     * @param critterCapabilities The new table
+     */
+    public static void setCapabilities(CritterCapabilities critterCapabilities) {
+        capabilities = critterCapabilities;
+    }
+
+    /**
+     * Checks if an entity type is one the plugin can tame and protect.
+     *
+     * @param entityType The entity type being checked
+     * @return True if it is, false if not
+     */
+    public static boolean isProtectable(EntityType entityType) {
+        return capabilities.isProtectable(entityType);
+    }
+
     /**
      * Checks if an entity is mountable in the eyes of the plugin.
      *
@@ -11,7 +38,7 @@ public class CritterUtils {
      * @return True if it can be mounted, false if not
      */
     public static boolean isMountableEntity(Entity entity) {
-        return entity instanceof AbstractHorse || entity instanceof HappyGhast || entity instanceof Strider;
+        return entity != null && capabilities.isMountable(entity.getType());
     }
 
     /**
@@ -21,7 +48,7 @@ public class CritterUtils {
      * @return True if it is considered a pet, false if not
      */
      static boolean isPetEntity(Entity entity) {
-        return entity instanceof Wolf || entity instanceof Cat || entity instanceof Parrot;
+        return entity != null && capabilities.isPet(entity.getType());
     }
 
     /**
@@ -31,7 +58,27 @@ public class CritterUtils {
      * @return True if it can be tamed, false if not
      */
     public static boolean canHandleTaming(Entity entity) {
-        return isMountableEntity(entity) || isPetEntity(entity);
+        return entity != null && capabilities.isProtectable(entity.getType());
+    }
+
+    /**
+     * Checks if players can be given passenger access to an entity.
+     *
+     * @param entity The entity being checked
+     * @return True if they can, false if not
+     */
+    public static boolean supportsPassengers(Entity entity) {
+        return entity != null && capabilities.supportsPassengers(entity.getType());
+    }
+
+    /**
+     * Returns the maximum number of players that can ride a mount at once.
+     *
+     * @param mount The mount being checked
+     * @return The maximum number of riders
+     */
+    public static int getMaxSeats(Entity mount) {
+        return capabilities.getMaxSeats(mount.getType());
     }
 
     /**
@@ -61,7 +108,7 @@ public class CritterUtils {
      * @return True if it is, false if not.
      */
     public static boolean isMultiSeatMount(Entity entity) {
-        return isCamel(entity) || isHappyGhast(entity);
+        return entity != null && capabilities.isMultiSeat(entity.getType());
     }
 
 }
@@ -0,0 +1,205 @@
+package me.ppgome.critterGuard.utility;
+
+import me.ppgome.critterGuard.CGConfig;
+import me.ppgome.critterGuard.CritterGuard;
+import me.ppgome.critterGuard.PlayerNameCache;
+import me.ppgome.critterGuard.database.SavedAnimal;
+import net.kyori.adventure.text.Component;
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Tells players who owns the critters they aren't allowed to use, without flooding them or the server.
+ *
+ * A player is only told about the same critter once per cooldown, so a repeated denial costs two map lookups.
+ * The finished messages are kept per owner along with the name they show, so they're only rebuilt when the owner's
+ * name, as refreshed by the PlayerNameCache, or the message itself changes.
+ * All methods must be called on the main thread.
+ */
+public class DenialNotifier {
+
+    /**
+     * The number of cooldowns a player can have before expired ones are cleared out.
+     */
+    private static final int PRUNE_THRESHOLD = 64;
+    /**
+     * The number of finished messages kept per message type before they're all rebuilt.
+     */
+    private static final int MAX_CACHED_MESSAGES = 4096;
+
+    /**
+     * The instance of the plugin.
+     */
+    private final CritterGuard plugin;
+    /**
+     * The instance of the configuration class.
+     */
+    private final CGConfig config;
+    /**
+     * The instance of the player name cache.
+     */
+    private final PlayerNameCache playerNameCache;
+    /**
+     * When each player can next be told about each critter, in milliseconds, keyed by player then critter.
+     */
+    private final HashMap<UUID, HashMap<UUID, Long>> cooldowns = new HashMap<>();
+    /**
+     * The finished interact denial messages, keyed by the owner's UUID.
+     */
+    private final HashMap<UUID, BuiltMessage> interactMessages = new HashMap<>();
+    /**
+     * The finished mount denial messages, keyed by the owner's UUID.
+     */
+    private final HashMap<UUID, BuiltMessage> mountMessages = new HashMap<>();
+    /**
+     * The interact message the cached interact messages were built from.
+     */
+    private MessageTemplate interactTemplate;
+    /**
+     * The mount message the cached mount messages were built from.
+     */
+    private MessageTemplate mountTemplate;
+
+    //------------------------------------------------------------------------------------------------------------------
+
+    /**
+     * Initializes the notifier.
+     *
+     * @param plugin The instance of the plugin
+     */
+    public DenialNotifier(CritterGuard plugin) {
+        this.plugin = plugin;
+        this.config = plugin.getCGConfig();
+        this.playerNameCache = plugin.getPlayerNameCache();
+    }
+
+    //------------------------------------------------------------------------------------------------------------------
+
+    /**
+     * Tells a player they can't interact with a critter, unless they were told recently.
+     *
+     * @param player The player who was denied
+     * @param savedAnimal The critter they tried to interact with
+     */
+    public void denyInteract(Player player, SavedAnimal savedAnimal) {
+        if(config.PERMISSION_INTERACT != interactTemplate) {
+            interactMessages.clear();
+            interactTemplate = config.PERMISSION_INTERACT;
+        }
+        deny(player, savedAnimal, interactMessages, interactTemplate);
+    }
+
+    /**
+     * Tells a player they can't mount a critter, unless they were told recently.
+     *
+     * @param player The player who was denied
+     * @param savedAnimal The critter they tried to mount
+     */
+    public void denyMount(Player player, SavedAnimal savedAnimal) {
+        if(config.PERMISSION_MOUNT != mountTemplate) {
+            mountMessages.clear();
+            mountTemplate = config.PERMISSION_MOUNT;
+        }
+        deny(player, savedAnimal, mountMessages, mountTemplate);
+    }
+
+    /**
+     * Forgets a player's cooldowns. Called when they leave the server.
+     *
+     * @param playerUuid The UUID of the player
+     */
+    public void clearPlayer(UUID playerUuid) {
+        cooldowns.remove(playerUuid);
+    }
+
+    //------------------------------------------------------------------------------------------------------------------
+
+    /**
+     * Sends a denial message if the player isn't on cooldown for the critter.
+     *
+     * @param player The player who was denied
+     * @param savedAnimal The critter they were denied
+     * @param messages The finished messages of this type, keyed by the owner's UUID
+     * @param template The message to build from if the owner's message isn't finished yet
+     */
+    private void deny(Player player, SavedAnimal savedAnimal, HashMap<UUID, BuiltMessage> messages,
+                      MessageTemplate template) {
+        if(!tryStartCooldown(player.getUniqueId(), savedAnimal.getEntityUuid())) return;
+
+        UUID ownerUuid = savedAnimal.getEntityOwnerUuid();
+        // Looked up every time so a name refreshed by the cache replaces the one in the finished message
+        CompletableFuture<String> ownerName = playerNameCache.getName(ownerUuid);
+        if(ownerName.isDone() && !ownerName.isCompletedExceptionally()) {
+            player.sendMessage(getMessage(messages, template, ownerUuid, ownerName.join()));
+            return;
+        }
+        // Get the name asynchronously as it's thread-blocking
+        ownerName.thenAccept(name -> Bukkit.getScheduler().runTask(plugin, () -> {
+            Component built = getMessage(messages, template, ownerUuid, name);
+            if(player.isOnline()) player.sendMessage(built);
+        }));
+    }
+
+    /**
+     * Returns the finished denial message for an owner, building it and keeping it for the next denial involving the
+     * same owner if it hasn't been built with their current name yet.
+     *
+     * @param messages The finished messages of this type, keyed by the owner's UUID
+     * @param template The message being built
+     * @param ownerUuid The UUID of the critter's owner
+     * @param ownerName The name of the critter's owner
+     * @return The finished message
+     */
+    private Component getMessage(HashMap<UUID, BuiltMessage> messages, MessageTemplate template, UUID ownerUuid,
+                                 String ownerName) {
+        BuiltMessage built = messages.get(ownerUuid);
+        if(built != null && ownerName != null && ownerName.equals(built.ownerName())) return built.message();
+
+        Component message = PlaceholderParser.of(template).player(ownerName != null ? ownerName : "Unknown").parse();
+        // A reload may have replaced the template while the name was being looked up
+        if(ownerName != null && (template == interactTemplate || template == mountTemplate)) {
+            if(messages.size() >= MAX_CACHED_MESSAGES) messages.clear();
+            messages.put(ownerUuid, new BuiltMessage(ownerName, message));
+        }
+        return message;
+    }
+
+    /**
+     * Starts a player's cooldown for a critter if they aren't already on one.
+     *
+     * @param playerUuid The UUID of the player
+     * @param entityUuid The UUID of the critter
+     * @return True if the player should be told, false if they're still on cooldown
+     */
+    private boolean tryStartCooldown(UUID playerUuid, UUID entityUuid) {
+        long now = System.currentTimeMillis();
+        HashMap<UUID, Long> playerCooldowns = cooldowns.computeIfAbsent(playerUuid, uuid -> new HashMap<>());
+        Long until = playerCooldowns.get(entityUuid);
+        if(until != null && until > now) return false;
+
+        if(playerCooldowns.size() >= PRUNE_THRESHOLD) {
+            Iterator<Long> iterator = playerCooldowns.values().iterator();
+            while(iterator.hasNext()) {
+                if(iterator.next() <= now) iterator.remove();
+            }
+        }
+        playerCooldowns.put(entityUuid, now + config.DENIAL_MESSAGE_COOLDOWN_MILLIS);
+        return true;
+    }
+
+    //------------------------------------------------------------------------------------------------------------------
+
+    /**
+     * A finished denial message and the owner name it was built with.
+     *
+     * @param ownerName The name of the critter's owner shown in the message
+     * @param message The finished message
+     */
+    private record BuiltMessage(String ownerName, Component message) {}
+
+}
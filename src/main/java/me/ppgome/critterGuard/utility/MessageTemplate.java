@@ -0,0 +1,175 @@
+package me.ppgome.critterGuard.utility;
+
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.TextComponent;
+import net.kyori.adventure.text.event.HoverEvent;
+import net.kyori.adventure.text.minimessage.MiniMessage;
+import net.kyori.adventure.text.minimessage.tag.resolver.Placeholder;
+import net.kyori.adventure.text.minimessage.tag.resolver.TagResolver;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A configurable message that has been run through MiniMessage once, ahead of time.
+ *
+ * Each placeholder is parsed as a single private use character, which stays put when MiniMessage merges neighbouring
+ * text. Sending the message only swaps those characters for their values, so it never has to be parsed again.
+ * The <button> placeholder never changes, so it's filled in when the template is compiled.
+ */
+public final class MessageTemplate {
+
+    /**
+     * The character the <player> placeholder is compiled to.
+     */
+    private static final char PLAYER_SLOT = '\uE000';
+    /**
+     * The character the <identifier> placeholder is compiled to.
+     */
+    private static final char IDENTIFIER_SLOT = '\uE001';
+    /**
+     * The character the <mount> placeholder is compiled to.
+     */
+    private static final char MOUNT_SLOT = '\uE002';
+    /**
+     * What an unfilled placeholder is shown as, indexed by its slot, matching how MiniMessage shows unknown tags.
+     */
+    private static final String[] UNFILLED = {"<player>", "<identifier>", "<mount>"};
+    /**
+     * Resolves every placeholder a message can contain to its slot character.
+     */
+    private static final TagResolver SLOT_RESOLVER = TagResolver.resolver(
+            Placeholder.component("player", Component.text(String.valueOf(PLAYER_SLOT))),
+            Placeholder.component("identifier", Component.text(String.valueOf(IDENTIFIER_SLOT))),
+            Placeholder.component("mount", Component.text(String.valueOf(MOUNT_SLOT))),
+            Placeholder.component("button", PlaceholderParser.CLICK));
+
+    /**
+     * The compiled message.
+     */
+    private final Component compiled;
+    /**
+     * True if the message contains a placeholder that has to be filled in when it's sent.
+     */
+    private final boolean hasSlots;
+
+    //------------------------------------------------------------------------------------------------------------------
+
+    /**
+     * Initializes the template.
+     *
+     * @param compiled The compiled message
+     */
+    private MessageTemplate(Component compiled) {
+        this.compiled = compiled;
+        this.hasSlots = containsSlot(compiled);
+    }
+
+    /**
+     * Compiles a MiniMessage string into a template.
+     *
+     * @param message The message, which may contain the <player>, <identifier>, <mount> and <button> placeholders
+     * @return The template
+     */
+    public static MessageTemplate compile(String message) {
+        return new MessageTemplate(MiniMessage.miniMessage().deserialize(message, SLOT_RESOLVER));
+    }
+
+    //------------------------------------------------------------------------------------------------------------------
+
+    /**
+     * Fills the placeholders in with their values.
+     * Placeholders given a null value are shown as the placeholder's tag, as MiniMessage would.
+     *
+     * @param player The value of <player>
+     * @param identifier The value of <identifier>
+     * @param mount The value of <mount>
+     * @return The finished message
+     */
+    public Component render(String player, String identifier, String mount) {
+        if(!hasSlots) return compiled;
+        return fill(compiled, new String[] {player, identifier, mount});
+    }
+
+    /**
+     * Fills the slots in a component and its children, reusing every part of the tree that has no slots.
+     *
+     * @param component The component being filled
+     * @param values The value of each slot
+     * @return The filled component
+     */
+    private static Component fill(Component component, String[] values) {
+        Component result = component;
+        if(result instanceof TextComponent text && indexOfSlot(text.content()) >= 0) {
+            result = text.content(fillContent(text.content(), values));
+        }
+        HoverEvent<?> hoverEvent = result.hoverEvent();
+        if(hoverEvent != null && hoverEvent.value() instanceof Component hoverText && containsSlot(hoverText)) {
+            result = result.hoverEvent(HoverEvent.showText(fill(hoverText, values)));
+        }
+
+        List<Component> children = result.children();
+        List<Component> filledChildren = null;
+        for(int i = 0; i < children.size(); i++) {
+            Component child = children.get(i);
+            Component filledChild = fill(child, values);
+            if(filledChild != child && filledChildren == null) filledChildren = new ArrayList<>(children);
+            if(filledChildren != null) filledChildren.set(i, filledChild);
+        }
+        return filledChildren == null ? result : result.children(filledChildren);
+    }
+
+    /**
+     * Replaces every slot character in a string with its value.
+     *
+     * @param content The string
+     * @param values The value of each slot
+     * @return The filled string
+     */
+    private static String fillContent(String content, String[] values) {
+        StringBuilder builder = new StringBuilder(content.length() + 16);
+        for(int i = 0; i < content.length(); i++) {
+            char character = content.charAt(i);
+            if(character >= PLAYER_SLOT && character <= MOUNT_SLOT) {
+                int slot = character - PLAYER_SLOT;
+                builder.append(values[slot] != null ? values[slot] : UNFILLED[slot]);
+            } else {
+                builder.append(character);
+            }
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Checks if a component, its hover text or any of its children contain a slot.
+     *
+     * @param component The component being checked
+     * @return True if they do, false if not
+     */
+    private static boolean containsSlot(Component component) {
+        if(component instanceof TextComponent text && indexOfSlot(text.content()) >= 0) return true;
+        HoverEvent<?> hoverEvent = component.hoverEvent();
+        if(hoverEvent != null && hoverEvent.value() instanceof Component hoverText && containsSlot(hoverText)) {
+            return true;
+        }
+        for(Component child : component.children()) {
+            if(containsSlot(child)) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Finds the first slot character in a string.
+     *
+     * @param content The string
+     * @return The index of the first slot character, or -1 if there isn't one
+     */
+    private static int indexOfSlot(String content) {
+        for(int i = 0; i < content.length(); i++) {
+            char character = content.charAt(i);
+            if(character >= PLAYER_SLOT && character <= MOUNT_SLOT) return i;
+        }
+        return -1;
+    }
+
+}
@@ -47,7 +47,7 @@ public class MessageUtils {
      * @param savedMount The mount the notification is about
      * @param notificationType The type of notification
      */
-    public static void notifyPlayer(Player player, SavedMount savedMount, String notificationType,
+    public static void notifyPlayer(Player player, SavedMount savedMount, MessageTemplate notificationType,
                                     CritterCache critterCache) {
         Player owner = Bukkit.getPlayer(savedMount.getEntityOwnerUuid());
         // Send message to owner
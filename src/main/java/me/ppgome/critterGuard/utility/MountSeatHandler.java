@@ -16,7 +16,6 @@ import org.bukkit.entity.Player;
 import java.util.ArrayList;
 import java.util.List;
 
-import static me.ppgome.critterGuard.utility.CritterUtils.isCamel;
 import static me.ppgome.critterGuard.utility.CritterUtils.isHappyGhast;
 import static me.ppgome.critterGuard.utility.MessageUtils.notifyPlayer;
 
@@ -73,9 +72,7 @@ public class MountSeatHandler {
      * @return The maximum number of players allowed to sit on a mount.
      */
     public int getMaxSeats(Entity mount) {
-        if(isCamel(mount)) return 2;
-        else if(isHappyGhast(mount)) return 4;
-        return 1;
+        return CritterUtils.getMaxSeats(mount);
     }
 
     /**
@@ -108,14 +105,8 @@ public class MountSeatHandler {
     public List<Entity> getPlayerStack(Entity mount) {
         List<Entity> stack = new ArrayList<>();
 
-        int maxPassengers;
-        if (isCamel(mount)) {
-            maxPassengers = 2;
-        } else if (isHappyGhast(mount)) {
-            maxPassengers = 4;
-        } else {
-            return stack; // Return empty list for other entity types
-        }
+        if (!CritterUtils.isMultiSeatMount(mount)) return stack; // Return empty list for single-seat mounts
+        int maxPassengers = getMaxSeats(mount);
 
         Entity current = mount;
 
@@ -191,7 +182,7 @@ public class MountSeatHandler {
      * @return true if the entity has control access, false otherwise.
      */
     public boolean hasControlAccess(Entity entity, SavedMount savedMount) {
-        return savedMount.isOwner(entity.getUniqueId()) || savedMount.hasFullAccess(entity.getUniqueId());
+        return savedMount.resolveAccess(entity.getUniqueId()).canControl();
     }
 
     /**
@@ -14,36 +14,66 @@ import java.util.List;
  */
 public class PlaceholderParser {
     /**
-     * The message being parsed.
+     * A pre-made KeybindComponent representing the key a player needs to press to interact with an entity.
+     */
+    static final KeybindComponent CLICK = Component.keybind().keybind("key.use").build();
+    /**
+     * The instance of the MiniMessage API.
+     */
+    private static final MiniMessage mm = MiniMessage.miniMessage();
+
+    /**
+     * The raw message being parsed, or null if a compiled template is being filled in.
      */
     private final String message;
     /**
-     * The list of placeholders being replaced.
+     * The compiled message being filled in, or null if a raw message is being parsed.
+     */
+    private final MessageTemplate template;
+    /**
+     * The list of placeholders being replaced in a raw message.
      */
     private final List<TagResolver.Single> placeholders = new ArrayList<>();
     /**
-     * A pre-made KeybindComponent representing the key a player needs to press to interact with an entity.
+     * The value of <player>.
      */
-    private final KeybindComponent click = Component.keybind().keybind("key.use").build();
+    private String player;
     /**
-     * The instance of the MiniMessage API.
+     * The value of <identifier>.
+     */
+    private String identifier;
+    /**
+     * The value of <mount>.
      */
-    private final MiniMessage mm = MiniMessage.miniMessage();
+    private String mount;
 
     /**
      * Initializes the builder.
      *
-     * @param message The message that will be parsed
+     * @param message The raw message that will be parsed
+     * @param template The compiled message that will be filled in
      */
-    private PlaceholderParser(String message) { this.message = message; }
+    private PlaceholderParser(String message, MessageTemplate template) {
+        this.message = message;
+        this.template = template;
+    }
 
     /**
      * Loads the message that contains placeholders into the object.
+     * The message is parsed by MiniMessage every time, so prefer compiled templates for configured messages.
      *
      * @param message The message that will be parsed
      * @return The parsed message
      */
-    public static PlaceholderParser of(String message) { return new PlaceholderParser(message); }
+    public static PlaceholderParser of(String message) { return new PlaceholderParser(message, null); }
+
+    /**
+     * Loads a compiled message into the object. Parsing only fills in the placeholders.
+     *
+     * @param template The message that will be filled in
+     * @return The parsed message
+     */
+    public static PlaceholderParser of(MessageTemplate template) { return new PlaceholderParser(null, template); }
 
     /**
      * Adds a check for the <player> tag in the message and replaces it.
@@ -52,7 +82,7 @@ public class PlaceholderParser {
      * @return The parsed message
      */
     public PlaceholderParser player(String name) {
-        placeholders.add(Placeholder.component("player", Component.text(name)));
+        this.player = name;
         return this;
     }
 
@@ -63,7 +93,7 @@ public class PlaceholderParser {
      * @return The parsed message
      */
     public PlaceholderParser identifier(String identifier) {
-        placeholders.add(Placeholder.component("identifier", Component.text(identifier)));
+        this.identifier = identifier;
         return this;
     }
 
@@ -74,17 +104,18 @@ public class PlaceholderParser {
      * @return The parsed message
      */
     public PlaceholderParser mount(String mount) {
-        placeholders.add(Placeholder.component("mount", Component.text(mount)));
+        this.mount = mount;
         return this;
     }
 
     /**
-     * Adds a check for the <click> tag in the message and replaces it.
+     * Adds a check for the <button> tag in the message and replaces it.
+     * Compiled templates always fill this in, so it only matters for raw messages.
      *
      * @return The parsed message
      */
     public PlaceholderParser click() {
-        placeholders.add(Placeholder.component("button", click));
+        placeholders.add(Placeholder.component("button", CLICK));
         return this;
     }
 
@@ -94,6 +125,10 @@ public class PlaceholderParser {
      * @return The parsed message.
      */
     public Component parse() {
+        if(template != null) return template.render(player, identifier, mount);
+        if(player != null) placeholders.add(Placeholder.component("player", Component.text(player)));
+        if(identifier != null) placeholders.add(Placeholder.component("identifier", Component.text(identifier)));
+        if(mount != null) placeholders.add(Placeholder.component("mount", Component.text(mount)));
         return mm.deserialize(message, placeholders.toArray(new TagResolver.Single[0]));
     }
 